@@ -0,0 +1,45 @@
+package com.scheduler.benchmark;
+
+import ai.timefold.solver.persistence.common.api.domain.solution.SolutionFileIO;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.Shift;
+import com.scheduler.persistence.SnapshotRepository;
+
+import java.io.File;
+import java.time.LocalDate;
+
+/**
+ * Benchmarker access to problem snapshots (see SnapshotRepository), so the benchmarker
+ * can run without Supabase.
+ */
+public class ScheduleSolutionFileIO implements SolutionFileIO<ScheduleSolution> {
+
+    private final SnapshotRepository snapshotRepository = new SnapshotRepository();
+
+    @Override
+    public String getInputFileExtension() {
+        return "json.gz";
+    }
+
+    @Override
+    public ScheduleSolution read(File inputSolutionFile) {
+        try {
+            return snapshotRepository.loadSolution(inputSolutionFile);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read snapshot " + inputSolutionFile, e);
+        }
+    }
+
+    @Override
+    public void write(ScheduleSolution solution, File outputSolutionFile) {
+        // Period = first to last shift date
+        LocalDate startDate = solution.getShifts().stream().map(Shift::getDate).min(LocalDate::compareTo).orElse(null);
+        LocalDate endDate = solution.getShifts().stream().map(Shift::getDate).max(LocalDate::compareTo).orElse(null);
+        try {
+            snapshotRepository.saveSolution(solution, startDate, endDate, outputSolutionFile);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to write snapshot " + outputSolutionFile, e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.scheduler.benchmark;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import ai.timefold.solver.benchmark.config.PlannerBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.ProblemBenchmarksConfig;
+import ai.timefold.solver.benchmark.config.SolverBenchmarkConfig;
+import ai.timefold.solver.benchmark.config.statistic.ProblemStatisticType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Timefold Benchmarker for the local search phase.
+ *
+ * The solver variants are those of LocalSearchBenchmark: the production configuration
+ * (App.buildSolverConfig) with only the local search acceptor/forager replaced, and an identical
+ * time limit per run, so the report compares metaheuristics and their parameters on the same datasets.
+ *
+ * Datasets are problem snapshots (SnapshotRepository, see ProblemExporter or App --save-snapshot).
+ * The HTML report (best score and score calculation speed per problem) is written under
+ * local/benchmarkReport/.
+ *
+ * Usage: mvn -Pbenchmark package
+ *        java -cp ... com.scheduler.benchmark.SchedulerBenchmarkApp [problemDir] [secondsPerRun]
+ */
+public class SchedulerBenchmarkApp {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerBenchmarkApp.class);
+
+    private static final String BENCHMARK_DIR = "local/benchmarkReport";
+
+    public static void main(String[] args) {
+        File problemDir = new File(args.length >= 1 ? args[0] : LocalSearchBenchmark.DEFAULT_PROBLEM_DIR);
+        long secondsPerRun = args.length >= 2 ? Long.parseLong(args[1]) : 60L;
+
+        File[] problemFiles = LocalSearchBenchmark.listProblemFiles(problemDir);
+        if (problemFiles.length == 0) {
+            log.error("No snapshot (*.json / *.json.gz) in {}. Export one with ProblemExporter first.",
+                problemDir.getAbsolutePath());
+            System.exit(1);
+        }
+
+        File reportDir = PlannerBenchmarkFactory.create(buildBenchmarkConfig(Arrays.asList(problemFiles), secondsPerRun))
+            .buildPlannerBenchmark()
+            .benchmark();
+        log.info("Benchmark report: {}", new File(reportDir, "index.html").getAbsolutePath());
+    }
+
+    public static PlannerBenchmarkConfig buildBenchmarkConfig(List<File> problemFiles, long secondsPerRun) {
+        ProblemBenchmarksConfig problemBenchmarksConfig = new ProblemBenchmarksConfig();
+        problemBenchmarksConfig.setSolutionFileIOClass(ScheduleSolutionFileIO.class);
+        problemBenchmarksConfig.setInputSolutionFileList(problemFiles);
+        problemBenchmarksConfig.setProblemStatisticTypeList(List.of(
+            ProblemStatisticType.BEST_SCORE,
+            ProblemStatisticType.SCORE_CALCULATION_SPEED));
+
+        SolverBenchmarkConfig inheritedConfig = new SolverBenchmarkConfig();
+        inheritedConfig.setProblemBenchmarksConfig(problemBenchmarksConfig);
+
+        List<SolverBenchmarkConfig> solverBenchmarkConfigs = new ArrayList<>();
+        for (LocalSearchBenchmark.Variant variant : LocalSearchBenchmark.variants()) {
+            SolverBenchmarkConfig solverBenchmarkConfig = new SolverBenchmarkConfig();
+            solverBenchmarkConfig.setName(variant.name());
+            solverBenchmarkConfig.setSolverConfig(LocalSearchBenchmark.buildSolverConfig(variant, 0L, secondsPerRun));
+            solverBenchmarkConfigs.add(solverBenchmarkConfig);
+        }
+
+        PlannerBenchmarkConfig benchmarkConfig = new PlannerBenchmarkConfig();
+        benchmarkConfig.setBenchmarkDirectory(new File(BENCHMARK_DIR));
+        // One run at a time: score calculation speeds stay comparable
+        benchmarkConfig.setParallelBenchmarkCount("1");
+        benchmarkConfig.setInheritedSolverBenchmarkConfig(inheritedConfig);
+        benchmarkConfig.setSolverBenchmarkConfigList(solverBenchmarkConfigs);
+        return benchmarkConfig;
+    }
+}
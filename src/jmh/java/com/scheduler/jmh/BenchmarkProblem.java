@@ -0,0 +1,38 @@
+package com.scheduler.jmh;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.benchmark.ProblemGenerator;
+import com.scheduler.domain.ScheduleSolution;
+
+/**
+ * Deterministic synthetic problem for the micro-benchmarks (ProblemGenerator, Shape.BENCHMARK).
+ *
+ * Proportions follow a production week: 3 sites, 12 locations (2 surgical, 4 with closing),
+ * 6 skills, about one slot per staff member and half-day, flexible staff and preferred physicians.
+ * The same seed always produces the same problem, so results are comparable between runs.
+ */
+public final class BenchmarkProblem {
+
+    private BenchmarkProblem() {
+    }
+
+    public static ScheduleSolution generate(int staffCount, int weeks, long seed) {
+        return ProblemGenerator.generate(ProblemGenerator.Shape.BENCHMARK, staffCount, weeks, seed);
+    }
+
+    /**
+     * Problem initialized by the production construction heuristics (no local search),
+     * i.e. the state local search moves start from.
+     */
+    public static ScheduleSolution generateInitialized(int staffCount, int weeks, long seed) {
+        return ProblemGenerator.generateInitialized(ProblemGenerator.Shape.BENCHMARK, staffCount, weeks, seed);
+    }
+
+    public static InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> buildScoreDirector(
+            ScheduleSolution solution, App.ScoreCalculation scoreCalculation) {
+        return ProblemGenerator.buildScoreDirector(solution, scoreCalculation);
+    }
+}
@@ -0,0 +1,71 @@
+package com.scheduler.jmh;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.ChangeMove;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+import com.scheduler.solver.ShiftSlotChangeMoveFilter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShiftSlotChangeMoveFilter.accept on random (slot, staff) change moves, eligible or not.
+ * Time is per batch of MOVE_COUNT moves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoveFilterBenchmark {
+
+    static final int MOVE_COUNT = 4096;
+
+    @Param({"60"})
+    public int staffCount;
+
+    private final ShiftSlotChangeMoveFilter filter = new ShiftSlotChangeMoveFilter();
+    private InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector;
+    private ChangeMove<ScheduleSolution>[] moves;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ScheduleSolution solution = BenchmarkProblem.generate(staffCount, 1, 0L);
+        scoreDirector = BenchmarkProblem.buildScoreDirector(solution, App.ScoreCalculation.CONSTRAINT_STREAMS);
+        GenuineVariableDescriptor<ScheduleSolution> staffVariable = scoreDirector.getSolutionDescriptor()
+            .findEntityDescriptorOrFail(ShiftSlot.class).getGenuineVariableDescriptor("staff");
+
+        List<ShiftSlot> slots = solution.getShiftSlots();
+        List<Staff> staffList = solution.getStaffList();
+        Random random = new Random(0L);
+        moves = new ChangeMove[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            moves[i] = new ChangeMove<>(staffVariable, slots.get(random.nextInt(slots.size())),
+                staffList.get(random.nextInt(staffList.size())));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public void accept(Blackhole blackhole) {
+        for (ChangeMove<ScheduleSolution> move : moves) {
+            blackhole.consume(filter.accept(scoreDirector, move));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.scheduler.jmh;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.ChangeMove;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full local search step cost: doMove + score calculation + undo + score calculation,
+ * with the production score director (shadow listeners included), on an initialized solution.
+ *
+ * This is the number that bounds the solver's moves/s, use it to compare constraint changes
+ * and the two score calculation types.
+ * porrentruySlotChangeMove only moves Porrentruy slots: together with closingAssignmentChangeMove,
+ * it isolates the S-WORKLOAD (fairness) path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoreDirectorMoveBenchmark {
+
+    static final int MOVE_COUNT = 4096;
+
+    @Param({"60"})
+    public int staffCount;
+
+    @Param({"1", "4"})
+    public int weeks;
+
+    @Param({"CONSTRAINT_STREAMS", "INCREMENTAL"})
+    public App.ScoreCalculation scoreCalculation;
+
+    private InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector;
+    private List<ChangeMove<ScheduleSolution>> slotMoves;
+    private List<ChangeMove<ScheduleSolution>> closingMoves;
+    private List<ChangeMove<ScheduleSolution>> porrentruySlotMoves;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        ScheduleSolution solution = BenchmarkProblem.generateInitialized(staffCount, weeks, 0L);
+        scoreDirector = BenchmarkProblem.buildScoreDirector(solution, scoreCalculation);
+        GenuineVariableDescriptor<ScheduleSolution> slotStaffVariable = scoreDirector.getSolutionDescriptor()
+            .findEntityDescriptorOrFail(ShiftSlot.class).getGenuineVariableDescriptor("staff");
+        GenuineVariableDescriptor<ScheduleSolution> closingStaffVariable = scoreDirector.getSolutionDescriptor()
+            .findEntityDescriptorOrFail(ClosingAssignment.class).getGenuineVariableDescriptor("staff");
+
+        List<ShiftSlot> slots = new ArrayList<>(solution.getShiftSlots());
+        slots.removeIf(slot -> slot.getEligibleStaffCount() == 0);
+        List<ShiftSlot> porrentruySlots = new ArrayList<>(slots);
+        porrentruySlots.removeIf(slot -> !"Porrentruy".equalsIgnoreCase(slot.getSiteName()));
+        List<ClosingAssignment> closingAssignments = solution.getClosingAssignments();
+        List<Staff> staffList = solution.getStaffList();
+        Random random = new Random(0L);
+        slotMoves = new ArrayList<>(MOVE_COUNT);
+        closingMoves = new ArrayList<>(MOVE_COUNT);
+        porrentruySlotMoves = new ArrayList<>(MOVE_COUNT);
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            ShiftSlot slot = slots.get(random.nextInt(slots.size()));
+            List<Staff> eligibleStaff = slot.getEligibleStaff();
+            slotMoves.add(new ChangeMove<>(slotStaffVariable, slot,
+                eligibleStaff.get(random.nextInt(eligibleStaff.size()))));
+            closingMoves.add(new ChangeMove<>(closingStaffVariable,
+                closingAssignments.get(random.nextInt(closingAssignments.size())),
+                staffList.get(random.nextInt(staffList.size()))));
+            ShiftSlot porrentruySlot = porrentruySlots.get(random.nextInt(porrentruySlots.size()));
+            List<Staff> porrentruyStaff = porrentruySlot.getEligibleStaff();
+            porrentruySlotMoves.add(new ChangeMove<>(slotStaffVariable, porrentruySlot,
+                porrentruyStaff.get(random.nextInt(porrentruyStaff.size()))));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public HardMediumSoftScore shiftSlotChangeMove() {
+        return doAndUndo(slotMoves.get(nextMoveIndex()));
+    }
+
+    @Benchmark
+    public HardMediumSoftScore closingAssignmentChangeMove() {
+        return doAndUndo(closingMoves.get(nextMoveIndex()));
+    }
+
+    @Benchmark
+    public HardMediumSoftScore porrentruySlotChangeMove() {
+        return doAndUndo(porrentruySlotMoves.get(nextMoveIndex()));
+    }
+
+    private int nextMoveIndex() {
+        int index = moveIndex;
+        moveIndex = (moveIndex + 1) % MOVE_COUNT;
+        return index;
+    }
+
+    private HardMediumSoftScore doAndUndo(ChangeMove<ScheduleSolution> move) {
+        Move<ScheduleSolution> undoMove = move.doMove(scoreDirector);
+        HardMediumSoftScore score = scoreDirector.calculateScore();
+        undoMove.doMove(scoreDirector);
+        scoreDirector.calculateScore();
+        return score;
+    }
+}
@@ -0,0 +1,114 @@
+package com.scheduler.jmh;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+import com.scheduler.solver.FullDayWorkListener;
+import com.scheduler.solver.WorkDayCountListener;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkDayCountListener / FullDayWorkListener update cost for one staff change and its undo,
+ * as the solver notifies them on a ShiftSlot.staff move.
+ *
+ * The listeners are driven directly on an initialized solution. The score director they write
+ * shadow variables through is the incremental one, which ignores shadow variable events,
+ * so the measured time is the listener index and shadow variable maintenance only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShadowListenerBenchmark {
+
+    static final int MOVE_COUNT = 4096;
+
+    @Param({"60"})
+    public int staffCount;
+
+    @Param({"1", "4"})
+    public int weeks;
+
+    private InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector;
+    private WorkDayCountListener workDayCountListener;
+    private FullDayWorkListener fullDayWorkListener;
+    private ShiftSlot[] moveSlots;
+    private Staff[] moveStaff;
+    private int moveIndex;
+
+    @Setup
+    public void setUp() {
+        ScheduleSolution solution = BenchmarkProblem.generateInitialized(staffCount, weeks, 0L);
+        scoreDirector = BenchmarkProblem.buildScoreDirector(solution, App.ScoreCalculation.INCREMENTAL);
+        workDayCountListener = new WorkDayCountListener();
+        workDayCountListener.resetWorkingSolution(scoreDirector);
+        fullDayWorkListener = new FullDayWorkListener();
+        fullDayWorkListener.resetWorkingSolution(scoreDirector);
+
+        // Eligible staff changes only, like the moves the solver actually evaluates
+        List<ShiftSlot> slots = new ArrayList<>(solution.getShiftSlots());
+        slots.removeIf(slot -> slot.getEligibleStaffCount() == 0);
+        Random random = new Random(0L);
+        moveSlots = new ShiftSlot[MOVE_COUNT];
+        moveStaff = new Staff[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            ShiftSlot slot = slots.get(random.nextInt(slots.size()));
+            List<Staff> eligibleStaff = slot.getEligibleStaff();
+            moveSlots[i] = slot;
+            moveStaff[i] = eligibleStaff.get(random.nextInt(eligibleStaff.size()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        workDayCountListener.close();
+        fullDayWorkListener.close();
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public Staff workDayCount() {
+        ShiftSlot slot = moveSlots[moveIndex];
+        Staff toStaff = moveStaff[moveIndex];
+        moveIndex = (moveIndex + 1) % MOVE_COUNT;
+        Staff fromStaff = slot.getStaff();
+        changeStaff(workDayCountListener, slot, toStaff);
+        changeStaff(workDayCountListener, slot, fromStaff);
+        return fromStaff;
+    }
+
+    @Benchmark
+    public Staff fullDayWork() {
+        ShiftSlot slot = moveSlots[moveIndex];
+        Staff toStaff = moveStaff[moveIndex];
+        moveIndex = (moveIndex + 1) % MOVE_COUNT;
+        Staff fromStaff = slot.getStaff();
+        changeStaff(fullDayWorkListener, slot, toStaff);
+        changeStaff(fullDayWorkListener, slot, fromStaff);
+        return fromStaff;
+    }
+
+    private void changeStaff(WorkDayCountListener listener, ShiftSlot slot, Staff staff) {
+        listener.beforeVariableChanged(scoreDirector, slot);
+        slot.setStaff(staff);
+        listener.afterVariableChanged(scoreDirector, slot);
+    }
+
+    private void changeStaff(FullDayWorkListener listener, ShiftSlot slot, Staff staff) {
+        listener.beforeVariableChanged(scoreDirector, slot);
+        slot.setStaff(staff);
+        listener.afterVariableChanged(scoreDirector, slot);
+    }
+}
@@ -0,0 +1,70 @@
+package com.scheduler.jmh;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShiftSlot getters delegating to Shift, evaluated by almost every constraint stream filter
+ * (need type string compares, date, period). Time is per pass over all slots of the problem.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShiftSlotGetterBenchmark {
+
+    @Param({"60"})
+    public int staffCount;
+
+    private ShiftSlot[] slots;
+
+    @Setup
+    public void setUp() {
+        ScheduleSolution solution = BenchmarkProblem.generate(staffCount, 1, 0L);
+        slots = solution.getShiftSlots().toArray(new ShiftSlot[0]);
+    }
+
+    @Benchmark
+    public void isSurgical(Blackhole blackhole) {
+        for (ShiftSlot slot : slots) {
+            blackhole.consume(slot.isSurgical());
+        }
+    }
+
+    @Benchmark
+    public void isConsultation(Blackhole blackhole) {
+        for (ShiftSlot slot : slots) {
+            blackhole.consume(slot.isConsultation());
+        }
+    }
+
+    @Benchmark
+    public void isAdminOrRest(Blackhole blackhole) {
+        for (ShiftSlot slot : slots) {
+            blackhole.consume(slot.isAdmin() || slot.isRest());
+        }
+    }
+
+    @Benchmark
+    public void dateAndPeriod(Blackhole blackhole) {
+        for (ShiftSlot slot : slots) {
+            blackhole.consume(slot.getDate());
+            blackhole.consume(slot.getPeriodId());
+        }
+    }
+
+    @Benchmark
+    public void siteAndLocation(Blackhole blackhole) {
+        for (ShiftSlot slot : slots) {
+            blackhole.consume(slot.getSiteId());
+            blackhole.consume(slot.getLocationId());
+        }
+    }
+}
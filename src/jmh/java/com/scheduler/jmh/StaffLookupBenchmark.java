@@ -0,0 +1,138 @@
+package com.scheduler.jmh;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staff lookups called by the move filter and the constraints:
+ * availability mask, skill/site maps, physician priorities.
+ * The *ByIndex variants use the dense keys (KeyIndex arrays) used by the solver, the others
+ * the UUID maps kept for persistence and reporting.
+ *
+ * Each invocation runs a batch of QUERY_COUNT pre-drawn (staff, slot) pairs,
+ * so the reported time is per batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StaffLookupBenchmark {
+
+    static final int QUERY_COUNT = 4096;
+
+    @Param({"60"})
+    public int staffCount;
+
+    private Staff[] staff;
+    private int[] dayOfWeek;
+    private int[] periodId;
+    private UUID[] skillId;
+    private UUID[] siteId;
+    private UUID[] physicianId;
+    private int[] skillIndex;
+    private int[] siteIndex;
+    private int[] physicianIndex;
+
+    @Setup
+    public void setUp() {
+        ScheduleSolution solution = BenchmarkProblem.generate(staffCount, 1, 0L);
+        List<Staff> staffList = solution.getStaffList();
+        List<ShiftSlot> slots = solution.getShiftSlots();
+        Random random = new Random(0L);
+        staff = new Staff[QUERY_COUNT];
+        dayOfWeek = new int[QUERY_COUNT];
+        periodId = new int[QUERY_COUNT];
+        skillId = new UUID[QUERY_COUNT];
+        siteId = new UUID[QUERY_COUNT];
+        physicianId = new UUID[QUERY_COUNT];
+        skillIndex = new int[QUERY_COUNT];
+        siteIndex = new int[QUERY_COUNT];
+        physicianIndex = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            ShiftSlot slot = slots.get(random.nextInt(slots.size()));
+            staff[i] = staffList.get(random.nextInt(staffList.size()));
+            dayOfWeek[i] = slot.getDate().getDayOfWeek().getValue();
+            periodId[i] = slot.getPeriodId();
+            skillId[i] = slot.getSkillId();
+            siteId[i] = slot.getSiteId();
+            physicianId[i] = slot.getShift().getPhysicianIds().iterator().next();
+            skillIndex[i] = slot.getSkillIndex();
+            siteIndex[i] = slot.getSiteIndex();
+            physicianIndex[i] = slot.getShift().getPhysicianIndexes()[0];
+        }
+    }
+
+    @Benchmark
+    public void isAvailable(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].isAvailable(dayOfWeek[i], periodId[i]));
+        }
+    }
+
+    @Benchmark
+    public void hasSkill(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].hasSkill(skillId[i]));
+        }
+    }
+
+    @Benchmark
+    public void getSkillPreference(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].getSkillPreference(skillId[i]));
+        }
+    }
+
+    @Benchmark
+    public void canWorkAtSite(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].canWorkAtSite(siteId[i]));
+        }
+    }
+
+    @Benchmark
+    public void getPhysicianPriority(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].getPhysicianPriority(physicianId[i]));
+        }
+    }
+
+    @Benchmark
+    public void hasSkillByIndex(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].hasSkill(skillIndex[i]));
+        }
+    }
+
+    @Benchmark
+    public void getSkillPreferenceByIndex(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].getSkillPreference(skillIndex[i]));
+        }
+    }
+
+    @Benchmark
+    public void canWorkAtSiteByIndex(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].canWorkAtSite(siteIndex[i]));
+        }
+    }
+
+    @Benchmark
+    public void getPhysicianPriorityByIndex(Blackhole blackhole) {
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            blackhole.consume(staff[i].getPhysicianPriority(physicianIndex[i]));
+        }
+    }
+}
@@ -2,33 +2,50 @@ package com.scheduler;
 
 import ai.timefold.solver.core.api.solver.Solver;
 import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
 import ai.timefold.solver.core.config.solver.SolverConfig;
 import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
 import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
 import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicType;
 import ai.timefold.solver.core.config.constructionheuristic.placer.QueuedEntityPlacerConfig;
 import ai.timefold.solver.core.config.heuristic.selector.entity.EntitySelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.MoveSelectorConfig;
 import ai.timefold.solver.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import ai.timefold.solver.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
 import ai.timefold.solver.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
 import ai.timefold.solver.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
-import ai.timefold.solver.core.config.heuristic.selector.move.generic.RuinRecreateMoveSelectorConfig;
 import ai.timefold.solver.core.config.heuristic.selector.value.ValueSelectorConfig;
 import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
 import ai.timefold.solver.core.config.localsearch.LocalSearchType;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
 
 import com.scheduler.domain.ClosingAssignment;
 import com.scheduler.domain.ClosingRole;
 import com.scheduler.domain.ScheduleSolution;
 import com.scheduler.domain.ShiftSlot;
+import com.scheduler.persistence.SnapshotRepository;
 import com.scheduler.persistence.SupabaseRepository;
+import com.scheduler.report.ScoreAnalysisReport;
 import com.scheduler.solver.ScheduleConstraintProvider;
+import com.scheduler.solver.RollingHorizonSolver;
+import com.scheduler.solver.ScheduleIncrementalScoreCalculator;
+import com.scheduler.solver.ClosingAssignmentChangeMoveFilter;
+import com.scheduler.solver.ClosingMoveIteratorFactory;
+import com.scheduler.solver.FullDayMoveIteratorFactory;
+import com.scheduler.solver.NearbySlotSwapMoveIteratorFactory;
 import com.scheduler.solver.ShiftSlotChangeMoveFilter;
+import com.scheduler.solver.ShiftSlotSwapMoveFilter;
+import com.scheduler.solver.SitePartitionedSolver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -36,39 +53,76 @@ import java.util.UUID;
  */
 public class App {
 
+    /**
+     * Score calculation used by the solver.
+     * CONSTRAINT_STREAMS = ScheduleConstraintProvider (Bavet), INCREMENTAL = ScheduleIncrementalScoreCalculator.
+     */
+    public enum ScoreCalculation {
+        CONSTRAINT_STREAMS,
+        INCREMENTAL
+    }
+
     private static final Logger log = LoggerFactory.getLogger(App.class);
 
     // Default Supabase configuration (can be overridden by environment variables)
     private static final String DEFAULT_SUPABASE_URL = "https://rhrdtrgwfzmuyrhkkulv.supabase.co";
 
+    // Local Search move mix (relative selection probabilities of the union move selector)
+    static final double SLOT_CHANGE_WEIGHT = 0.6;
+    static final double SLOT_SWAP_WEIGHT = 0.05;
+    static final double NEARBY_SLOT_SWAP_WEIGHT = 0.15;
+    static final double FULL_DAY_WEIGHT = 0.05; // only with --full-day-moves (withFullDayMoves)
+    static final double CLOSING_CHANGE_WEIGHT = 0.1;
+    static final double CLOSING_FULL_DAY_WEIGHT = 0.1;
+
     public static void main(String[] args) {
         try {
             log.info("=== Staff Scheduler Starting ===");
 
-            // Get configuration from environment or defaults
-            String supabaseUrl = getEnv("SUPABASE_URL", DEFAULT_SUPABASE_URL);
-            String supabaseKey = getEnv("SUPABASE_SERVICE_ROLE_KEY", null);
-
-            if (supabaseKey == null) {
-                log.error("SUPABASE_SERVICE_ROLE_KEY environment variable is required");
-                System.exit(1);
+            // Offline snapshots: --from-snapshot replaces the Supabase load, --save-snapshot writes the loaded problem
+            String fromSnapshot = getOption(args, "from-snapshot", null, null);
+            String saveSnapshot = getOption(args, "save-snapshot", null, null);
+
+            LocalDate startDate;
+            LocalDate endDate;
+            ScheduleSolution problem;
+            if (fromSnapshot != null) {
+                SnapshotRepository.Snapshot snapshot = new SnapshotRepository().loadSnapshot(new File(fromSnapshot));
+                startDate = snapshot.startDate();
+                endDate = snapshot.endDate();
+                problem = snapshot.solution();
+                log.info("Scheduling period: {} to {} (snapshot)", startDate, endDate);
+            } else {
+                // Get configuration from environment or defaults
+                String supabaseUrl = getEnv("SUPABASE_URL", DEFAULT_SUPABASE_URL);
+                String supabaseKey = getEnv("SUPABASE_SERVICE_ROLE_KEY", null);
+
+                if (supabaseKey == null) {
+                    log.error("SUPABASE_SERVICE_ROLE_KEY environment variable is required");
+                    System.exit(1);
+                }
+
+                // Parse date range from arguments or use default (current week)
+                startDate = LocalDate.now();
+                endDate = startDate.plusDays(7);
+
+                List<String> positionalArgs = getPositionalArgs(args);
+                if (positionalArgs.size() >= 2) {
+                    startDate = LocalDate.parse(positionalArgs.get(0));
+                    endDate = LocalDate.parse(positionalArgs.get(1));
+                }
+
+                log.info("Scheduling period: {} to {}", startDate, endDate);
+
+                // Load data from Supabase
+                SupabaseRepository repository = new SupabaseRepository(supabaseUrl, supabaseKey);
+                problem = repository.loadSolution(startDate, endDate);
             }
 
-            // Parse date range from arguments or use default (current week)
-            LocalDate startDate = LocalDate.now();
-            LocalDate endDate = startDate.plusDays(7);
-
-            if (args.length >= 2) {
-                startDate = LocalDate.parse(args[0]);
-                endDate = LocalDate.parse(args[1]);
+            if (saveSnapshot != null) {
+                new SnapshotRepository().saveSolution(problem, startDate, endDate, new File(saveSnapshot));
             }
 
-            log.info("Scheduling period: {} to {}", startDate, endDate);
-
-            // Load data from Supabase
-            SupabaseRepository repository = new SupabaseRepository(supabaseUrl, supabaseKey);
-            ScheduleSolution problem = repository.loadSolution(startDate, endDate);
-
             log.info("Problem loaded:");
             log.info("  - {} staff members", problem.getStaffList().size());
             log.info("  - {} shifts", problem.getShifts().size());
@@ -92,79 +146,78 @@ public class App {
                     firstShift.getSkillId(), firstShift.getQuantityNeeded());
             }
 
-            // Configure solver with optimized phases and termination
-            // ShiftSlot: staff variable | ClosingAssignment: staff variable
-            SolverConfig solverConfig = new SolverConfig()
-                .withSolutionClass(ScheduleSolution.class)
-                .withEntityClasses(ShiftSlot.class, ClosingAssignment.class)
-                .withConstraintProviderClass(ScheduleConstraintProvider.class)
-                .withPhases(
-                    // Phase 1: Construction Heuristic for ShiftSlot (variable: staff)
-                    // ShiftSlot uses allowsUnassigned=true, so some slots may remain unassigned
-                    // Filter eliminates invalid moves (wrong skill/site/availability)
-                    new ConstructionHeuristicPhaseConfig()
-                        .withEntityPlacerConfig(new QueuedEntityPlacerConfig()
-                            .withEntitySelectorConfig(new EntitySelectorConfig()
-                                .withEntityClass(ShiftSlot.class))
-                            .withMoveSelectorConfigList(java.util.List.of(
-                                new ChangeMoveSelectorConfig()
-                                    .withEntitySelectorConfig(new EntitySelectorConfig()
-                                        .withEntityClass(ShiftSlot.class))
-                                    .withValueSelectorConfig(new ValueSelectorConfig()
-                                        .withVariableName("staff"))
-                                    .withFilterClass(ShiftSlotChangeMoveFilter.class)))),
-                    // Phase 2: Construction Heuristic for ClosingAssignment
-                    new ConstructionHeuristicPhaseConfig()
-                        .withEntityPlacerConfig(new QueuedEntityPlacerConfig()
-                            .withEntitySelectorConfig(new EntitySelectorConfig()
-                                .withEntityClass(ClosingAssignment.class))),
-                    // Phase 3: Local Search - optimizes both ShiftSlot.staff and ClosingAssignment.staff
-                    new LocalSearchPhaseConfig()
-                        .withLocalSearchType(LocalSearchType.LATE_ACCEPTANCE)
-                        .withMoveSelectorConfig(
-                            new UnionMoveSelectorConfig()
-                                .withMoveSelectorList(java.util.List.of(
-                                    // Move selector for ShiftSlot.staff variable (filtered)
-                                    new ChangeMoveSelectorConfig()
-                                        .withEntitySelectorConfig(new EntitySelectorConfig()
-                                            .withEntityClass(ShiftSlot.class))
-                                        .withValueSelectorConfig(new ValueSelectorConfig()
-                                            .withVariableName("staff"))
-                                        .withFilterClass(ShiftSlotChangeMoveFilter.class),
-                                    // Move selector for ClosingAssignment.staff variable
-                                    new ChangeMoveSelectorConfig()
-                                        .withEntitySelectorConfig(new EntitySelectorConfig()
-                                            .withEntityClass(ClosingAssignment.class))
-                                        .withValueSelectorConfig(new ValueSelectorConfig()
-                                            .withVariableName("staff"))
-                                ))
-                        )
-                )
-                .withTerminationConfig(
-                    new TerminationConfig()
-                        .withSecondsSpentLimit(10L)          // 10s max total
-                        .withUnimprovedSecondsSpentLimit(5L) // Stop après 5s sans amélioration
-                );
+            // Environment mode (FULL_ASSERT to validate shadow variable listeners, slower)
+            EnvironmentMode environmentMode = EnvironmentMode.valueOf(
+                getOption(args, "environment-mode", "SOLVER_ENVIRONMENT_MODE", EnvironmentMode.REPRODUCIBLE.name()));
+            // Move threads: NONE (default), AUTO or a number (requires Timefold Enterprise, see README)
+            String moveThreadCount = getOption(args, "move-threads", "SOLVER_MOVE_THREAD_COUNT",
+                SolverConfig.MOVE_THREAD_COUNT_NONE);
+            // Score calculation: CONSTRAINT_STREAMS (default) or INCREMENTAL (hand-written calculator)
+            ScoreCalculation scoreCalculation = ScoreCalculation.valueOf(
+                getOption(args, "score-calculator", "SOLVER_SCORE_CALCULATOR", ScoreCalculation.CONSTRAINT_STREAMS.name()));
+            // Site partitioning: 0 = off (default), AUTO = one thread per core, or a thread count
+            int partitionThreadCount = parsePartitionThreadCount(
+                getOption(args, "partition-threads", "SOLVER_PARTITION_THREADS", "0"));
+            // Rolling horizon: one solve per week, previous weeks pinned (false by default)
+            boolean rollingHorizon = Boolean.parseBoolean(
+                getOption(args, "rolling-horizon", "SOLVER_ROLLING_HORIZON", "false"));
+            if (rollingHorizon && partitionThreadCount > 0) {
+                throw new IllegalArgumentException("--rolling-horizon and --partition-threads cannot be combined");
+            }
+            // Burden sites balanced by S-WORKLOAD: site names or UUIDs, comma separated (empty = none)
+            List<String> burdenSites = parseCommaList(getOption(args, "burden-sites", "SOLVER_BURDEN_SITES",
+                String.join(",", ScheduleSolution.DEFAULT_BURDEN_SITES)));
+            problem.setBurdenSites(burdenSites);
+            // Score analysis: SUMMARY (default) explains the score after solving, OFF skips it (production)
+            ScoreAnalysisReport.Mode scoreAnalysisMode = ScoreAnalysisReport.Mode.valueOf(
+                getOption(args, "score-analysis", "SOLVER_SCORE_ANALYSIS", ScoreAnalysisReport.Mode.SUMMARY.name()));
+            // Analysis limited to the N worst constraints (0 = all) and/or detailed for some staff
+            int analysisTop = Integer.parseInt(getOption(args, "analysis-top", "SOLVER_ANALYSIS_TOP", "0"));
+            List<String> analysisStaff = parseCommaList(getOption(args, "analysis-staff", "SOLVER_ANALYSIS_STAFF", ""));
+            // Full-day pillar moves in the local search (false by default, see withFullDayMoves)
+            boolean fullDayMoves = Boolean.parseBoolean(
+                getOption(args, "full-day-moves", "SOLVER_FULL_DAY_MOVES", "false"));
+            log.info("Solver environment mode: {}, move threads: {}, score calculator: {}, partition threads: {}, rolling horizon: {}, burden sites: {}, score analysis: {}, full-day moves: {}",
+                environmentMode, moveThreadCount, scoreCalculation, partitionThreadCount, rollingHorizon, burdenSites,
+                scoreAnalysisMode, fullDayMoves);
+
+            SolverConfig solverConfig = buildSolverConfig(environmentMode, moveThreadCount, scoreCalculation);
+            SolverConfig polishSolverConfig = buildPolishSolverConfig(environmentMode, moveThreadCount, scoreCalculation);
+            if (fullDayMoves) {
+                withFullDayMoves(solverConfig);
+                withFullDayMoves(polishSolverConfig);
+            }
 
             // Create solver factory
             SolverFactory<ScheduleSolution> solverFactory = SolverFactory.create(solverConfig);
 
-            // Test: Calculate initial score manually
-            log.info("Testing constraint provider...");
-            var scoreManager = ai.timefold.solver.core.api.solver.SolutionManager.create(solverFactory);
-            scoreManager.update(problem);
-            log.info("Initial score (all null): {}", problem.getScore());
+            // Analysis always uses constraint streams (explain needs constraint matches),
+            // built only when requested: the solve itself never tracks constraint matches
+            ScoreAnalysisReport scoreAnalysis = null;
+            if (scoreAnalysisMode != ScoreAnalysisReport.Mode.OFF) {
+                scoreAnalysis = new ScoreAnalysisReport(buildSolverConfig(environmentMode,
+                    SolverConfig.MOVE_THREAD_COUNT_NONE, ScoreCalculation.CONSTRAINT_STREAMS));
+                log.info("Initial score (all null): {}", scoreAnalysis.updateScore(problem));
+            }
 
             // Count unassigned slots
             long unassignedCount = problem.getShiftSlots().stream().filter(s -> s.getStaff() == null).count();
             log.info("Unassigned ShiftSlots: {}", unassignedCount);
 
-            // Create and run solver
-            Solver<ScheduleSolution> solver = solverFactory.buildSolver();
-
             log.info("Starting solver...");
             long startTime = System.currentTimeMillis();
-            ScheduleSolution solution = solver.solve(problem);
+            ScheduleSolution solution;
+            if (rollingHorizon) {
+                // Week by week, warm started from the previous week, termination applies per week
+                solution = new RollingHorizonSolver(solverConfig).solve(problem);
+            } else if (partitionThreadCount > 0) {
+                // One subproblem per site in parallel, then a global local search on the merged schedule
+                solution = new SitePartitionedSolver(solverConfig, polishSolverConfig, partitionThreadCount)
+                    .solve(problem);
+            } else {
+                Solver<ScheduleSolution> solver = solverFactory.buildSolver();
+                solution = solver.solve(problem);
+            }
             long endTime = System.currentTimeMillis();
 
             // Log results
@@ -172,10 +225,11 @@ public class App {
             log.info("Solving time: {} seconds", (endTime - startTime) / 1000.0);
             log.info("Score: {}", solution.getScore());
 
-            // Score breakdown by constraint
-            log.info("\n=== Score Analysis ===");
-            var scoreAnalysis = scoreManager.explain(solution);
-            log.info("{}", scoreAnalysis.getSummary());
+            // Score breakdown by constraint (on demand, see --score-analysis)
+            if (scoreAnalysis != null) {
+                log.info("\n=== Score Analysis ===");
+                scoreAnalysis.explain(solution, analysisTop, analysisStaff).forEach(line -> log.info("{}", line));
+            }
 
             // Count slot coverage
             long assignedSlots = solution.getShiftSlots().stream()
@@ -204,12 +258,12 @@ public class App {
                 .filter(s -> s.isHasFlexibleSchedule())
                 .toList();
             for (var staff : flexStaff) {
-                // Count work days using shadow variable
+                // Count work days using shadow variable (per week: busiest week)
                 Integer workDays = solution.getShiftSlots().stream()
                     .filter(s -> staff.equals(s.getStaff()))
                     .map(ShiftSlot::getStaffWorkDayCount)
                     .filter(c -> c != null)
-                    .findFirst()
+                    .max(Integer::compare)
                     .orElse(0);
                 // Check if working full days
                 long partialDays = solution.getShiftSlots().stream()
@@ -378,8 +432,214 @@ public class App {
         }
     }
 
+    /**
+     * Builds the solver configuration (phases + termination) used by the scheduler.
+     *
+     * MULTI-THREADED SOLVING: with moveThreadCount != NONE, moves are evaluated in parallel
+     * on clones of the working solution. This is safe because:
+     * - Staff lookup caches are immutable snapshots frozen after loading (Staff.freezeCaches)
+     * - ShiftSlotChangeMoveFilter is stateless and only reads problem facts
+     * - ClosingAssignmentChangeMoveFilter only reads the slots of the move's own (cloned) closing
+     * - FullDayMoveIteratorFactory / ClosingMoveIteratorFactory / NearbySlotSwapMoveIteratorFactory
+     *   only run on the solver thread (move threads rebase their moves)
+     * - Every shadow variable listener (WorkDayCountListener, FullDayWorkListener,
+     *   ClosingFullDayListener) is instantiated per ScoreDirector, so each move thread owns its own index
+     * - Constraint lambdas are stateless
+     */
+    public static SolverConfig buildSolverConfig(EnvironmentMode environmentMode, String moveThreadCount) {
+        return buildSolverConfig(environmentMode, moveThreadCount, ScoreCalculation.CONSTRAINT_STREAMS);
+    }
+
+    public static SolverConfig buildSolverConfig(EnvironmentMode environmentMode, String moveThreadCount,
+            ScoreCalculation scoreCalculation) {
+        // Configure solver with optimized phases and termination
+        // ShiftSlot: staff variable | ClosingAssignment: staff variable
+        return new SolverConfig()
+            .withEnvironmentMode(environmentMode)
+            .withMoveThreadCount(moveThreadCount)
+            .withSolutionClass(ScheduleSolution.class)
+            .withEntityClasses(ShiftSlot.class, ClosingAssignment.class)
+            .withScoreDirectorFactory(buildScoreDirectorFactoryConfig(scoreCalculation))
+            .withPhases(
+                // Phase 1: Construction Heuristic for ShiftSlot (variable: staff)
+                // ShiftSlot uses allowsUnassigned=true, so some slots may remain unassigned
+                // Filter eliminates invalid moves (wrong skill/site/availability)
+                // The move selector mimics the placer's entity: each step only evaluates the slot
+                // being placed (without mimic, every step evaluated all slots x all staff)
+                new ConstructionHeuristicPhaseConfig()
+                    .withEntityPlacerConfig(new QueuedEntityPlacerConfig()
+                        .withEntitySelectorConfig(new EntitySelectorConfig()
+                            .withId("placedShiftSlot")
+                            .withEntityClass(ShiftSlot.class))
+                        .withMoveSelectorConfigList(java.util.List.of(
+                            new ChangeMoveSelectorConfig()
+                                .withEntitySelectorConfig(new EntitySelectorConfig()
+                                    .withMimicSelectorRef("placedShiftSlot"))
+                                .withValueSelectorConfig(new ValueSelectorConfig()
+                                    .withVariableName("staff"))
+                                .withFilterClass(ShiftSlotChangeMoveFilter.class)))),
+                // Phase 2: Construction Heuristic for ClosingAssignment
+                // Filter keeps the staff working at the closing location that day
+                new ConstructionHeuristicPhaseConfig()
+                    .withEntityPlacerConfig(new QueuedEntityPlacerConfig()
+                        .withEntitySelectorConfig(new EntitySelectorConfig()
+                            .withId("placedClosingAssignment")
+                            .withEntityClass(ClosingAssignment.class))
+                        .withMoveSelectorConfigList(java.util.List.of(
+                            new ChangeMoveSelectorConfig()
+                                .withEntitySelectorConfig(new EntitySelectorConfig()
+                                    .withMimicSelectorRef("placedClosingAssignment"))
+                                .withValueSelectorConfig(new ValueSelectorConfig()
+                                    .withVariableName("staff"))
+                                .withFilterClass(ClosingAssignmentChangeMoveFilter.class)))),
+                // Phase 3: Local Search - optimizes both ShiftSlot.staff and ClosingAssignment.staff
+                new LocalSearchPhaseConfig()
+                    .withLocalSearchType(LocalSearchType.LATE_ACCEPTANCE)
+                    .withMoveSelectorConfig(
+                        new UnionMoveSelectorConfig()
+                            .withMoveSelectorList(java.util.List.of(
+                                // Move selector for ShiftSlot.staff variable (filtered)
+                                new ChangeMoveSelectorConfig()
+                                    .withEntitySelectorConfig(new EntitySelectorConfig()
+                                        .withEntityClass(ShiftSlot.class))
+                                    .withValueSelectorConfig(new ValueSelectorConfig()
+                                        .withVariableName("staff"))
+                                    .withFilterClass(ShiftSlotChangeMoveFilter.class)
+                                    .withFixedProbabilityWeight(SLOT_CHANGE_WEIGHT),
+                                // Swap of the staff of two ShiftSlots (eligibility checked both ways)
+                                new SwapMoveSelectorConfig()
+                                    .withEntitySelectorConfig(new EntitySelectorConfig()
+                                        .withEntityClass(ShiftSlot.class))
+                                    .withFilterClass(ShiftSlotSwapMoveFilter.class)
+                                    .withFixedProbabilityWeight(SLOT_SWAP_WEIGHT),
+                                // Swap with one of the nearest slots (same half-day, site, skill)
+                                new MoveIteratorFactoryConfig()
+                                    .withMoveIteratorFactoryClass(NearbySlotSwapMoveIteratorFactory.class)
+                                    .withFixedProbabilityWeight(NEARBY_SLOT_SWAP_WEIGHT),
+                                // Move selector for ClosingAssignment.staff variable (staff working at the location)
+                                new ChangeMoveSelectorConfig()
+                                    .withEntitySelectorConfig(new EntitySelectorConfig()
+                                        .withEntityClass(ClosingAssignment.class))
+                                    .withValueSelectorConfig(new ValueSelectorConfig()
+                                        .withVariableName("staff"))
+                                    .withFilterClass(ClosingAssignmentChangeMoveFilter.class)
+                                    .withFixedProbabilityWeight(CLOSING_CHANGE_WEIGHT),
+                                // Closing role + AM and PM slots at its location, in one move
+                                new MoveIteratorFactoryConfig()
+                                    .withMoveIteratorFactoryClass(ClosingMoveIteratorFactory.class)
+                                    .withFixedProbabilityWeight(CLOSING_FULL_DAY_WEIGHT)
+                            ))
+                    )
+            )
+            .withTerminationConfig(
+                new TerminationConfig()
+                    .withSecondsSpentLimit(10L)          // 10s max total
+                    .withUnimprovedSecondsSpentLimit(5L) // Stop après 5s sans amélioration
+            );
+    }
+
+    /**
+     * Adds the full-day pillar moves (FullDayMoveIteratorFactory, AM + PM of one staff) to the
+     * local search union. Off by default: at FULL_DAY_WEIGHT they did not beat the union without
+     * them, enable with --full-day-moves to measure them on real problems.
+     */
+    public static SolverConfig withFullDayMoves(SolverConfig solverConfig) {
+        for (PhaseConfig<?> phaseConfig : solverConfig.getPhaseConfigList()) {
+            if (phaseConfig instanceof LocalSearchPhaseConfig localSearchPhaseConfig
+                    && localSearchPhaseConfig.getMoveSelectorConfig() instanceof UnionMoveSelectorConfig union) {
+                List<MoveSelectorConfig> moveSelectors = new ArrayList<>(union.getMoveSelectorList());
+                moveSelectors.add(new MoveIteratorFactoryConfig()
+                    .withMoveIteratorFactoryClass(FullDayMoveIteratorFactory.class)
+                    .withFixedProbabilityWeight(FULL_DAY_WEIGHT));
+                union.setMoveSelectorList(moveSelectors);
+            }
+        }
+        return solverConfig;
+    }
+
+    /**
+     * Global phase of the site-partitioned mode: ClosingAssignment construction (only for the
+     * closings a partition left uninitialized when it timed out) + local search, same move
+     * selectors as buildSolverConfig, shorter termination.
+     */
+    public static SolverConfig buildPolishSolverConfig(EnvironmentMode environmentMode, String moveThreadCount,
+            ScoreCalculation scoreCalculation) {
+        SolverConfig solverConfig = buildSolverConfig(environmentMode, moveThreadCount, scoreCalculation);
+        List<PhaseConfig> phaseConfigs = solverConfig.getPhaseConfigList();
+        return solverConfig
+            .withPhases(phaseConfigs.get(1), phaseConfigs.get(2))
+            .withTerminationConfig(
+                new TerminationConfig()
+                    .withSecondsSpentLimit(5L)
+                    .withUnimprovedSecondsSpentLimit(2L)
+            );
+    }
+
+    /**
+     * Score director for the given calculation type.
+     * Both produce the same score (see ScoreParityTest).
+     */
+    public static ScoreDirectorFactoryConfig buildScoreDirectorFactoryConfig(ScoreCalculation scoreCalculation) {
+        if (scoreCalculation == ScoreCalculation.INCREMENTAL) {
+            return new ScoreDirectorFactoryConfig()
+                .withIncrementalScoreCalculatorClass(ScheduleIncrementalScoreCalculator.class);
+        }
+        return new ScoreDirectorFactoryConfig()
+            .withConstraintProviderClass(ScheduleConstraintProvider.class);
+    }
+
     private static String getEnv(String name, String defaultValue) {
         String value = System.getenv(name);
         return value != null ? value : defaultValue;
     }
+
+    /**
+     * "AUTO" = available processors, otherwise a thread count (0 = no site partitioning).
+     */
+    static int parsePartitionThreadCount(String value) {
+        if ("AUTO".equalsIgnoreCase(value)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * "Porrentruy, 627a8ef9-..." -> [Porrentruy, 627a8ef9-...]. Blank entries are ignored.
+     * Used for --burden-sites and --analysis-staff.
+     */
+    static List<String> parseCommaList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Reads an option from "--name=value" on the command line, then from the environment variable.
+     */
+    static String getOption(String[] args, String name, String envName, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return envName != null ? getEnv(envName, defaultValue) : defaultValue;
+    }
+
+    /**
+     * Command line arguments that are not "--options" (start date, end date).
+     */
+    static List<String> getPositionalArgs(String[] args) {
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+            }
+        }
+        return positional;
+    }
 }
@@ -0,0 +1,342 @@
+package com.scheduler.benchmark;
+
+import ai.timefold.solver.constraint.streams.bavet.BavetConstraintStreamScoreDirectorFactory;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import ai.timefold.solver.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.ChangeMove;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+
+import com.scheduler.App;
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+import com.scheduler.persistence.SnapshotRepository;
+import com.scheduler.persistence.SupabaseRepository;
+import com.scheduler.solver.ScheduleConstraintProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Coût de chaque contrainte de ScheduleConstraintProvider dans le calcul du score.
+ *
+ * Rejoue la même séquence de moves aléatoires (seed fixe, ChangeMove sur ShiftSlot et
+ * ClosingAssignment : doMove + score + undo + score, comme ScoreDirectorMoveBenchmark) sur un
+ * problème initialisé par les construction heuristics de production, avec :
+ * - aucune contrainte (coût du move et des shadow listeners seuls),
+ * - toutes les contraintes,
+ * - chaque contrainte seule (coût propre, nœuds partagés compris),
+ * - toutes sauf une (gain si on la retire : les nœuds partagés avec d'autres contraintes restent).
+ *
+ * Pour chaque configuration : µs et octets alloués par move (meilleur de plusieurs rounds),
+ * mémoire retenue par la session Bavet (approximative, heap après GC) et, pour la config
+ * complète, le nombre de matches de chaque contrainte (taille des tuples en sortie).
+ *
+ * À lancer avant d'ajouter une contrainte : une contrainte qui coûte autant que toutes les
+ * autres réunies divise le débit du solver par deux.
+ *
+ * Usage: java -cp staff-scheduler.jar com.scheduler.benchmark.ConstraintCostProfiler
+ *            <snapshot.json[.gz] | startDate endDate> [moves] [rounds]
+ */
+public class ConstraintCostProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(ConstraintCostProfiler.class);
+
+    private static final long SEED = 0L;
+    private static final int WARMUP_RUNS = 3;
+
+    private final ScheduleSolution solution;
+    private final SolutionDescriptor<ScheduleSolution> solutionDescriptor;
+    private final List<ChangeMove<ScheduleSolution>> moves;
+    private final int rounds;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            log.error("Usage: ConstraintCostProfiler <snapshot.json[.gz] | startDate endDate> [moves] [rounds]");
+            System.exit(1);
+        }
+        ScheduleSolution problem;
+        int nextArg;
+        if (isDate(args[0])) {
+            if (args.length < 2) {
+                log.error("Usage: ConstraintCostProfiler <startDate> <endDate> [moves] [rounds]");
+                System.exit(1);
+            }
+            String supabaseUrl = System.getenv().getOrDefault("SUPABASE_URL", "https://rhrdtrgwfzmuyrhkkulv.supabase.co");
+            String supabaseKey = System.getenv("SUPABASE_SERVICE_ROLE_KEY");
+            if (supabaseKey == null) {
+                log.error("SUPABASE_SERVICE_ROLE_KEY environment variable is required");
+                System.exit(1);
+            }
+            problem = new SupabaseRepository(supabaseUrl, supabaseKey)
+                .loadSolution(LocalDate.parse(args[0]), LocalDate.parse(args[1]));
+            nextArg = 2;
+        } else {
+            problem = new SnapshotRepository().loadSolution(new File(args[0]));
+            nextArg = 1;
+        }
+        int moveCount = args.length > nextArg ? Integer.parseInt(args[nextArg]) : 20_000;
+        int rounds = args.length > nextArg + 1 ? Integer.parseInt(args[nextArg + 1]) : 5;
+
+        new ConstraintCostProfiler(problem, moveCount, rounds).profile().forEach(log::info);
+    }
+
+    private static boolean isDate(String arg) {
+        try {
+            LocalDate.parse(arg);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Initializes the problem with the production construction heuristics and builds the move sequence.
+     */
+    public ConstraintCostProfiler(ScheduleSolution problem, int moveCount, int rounds) {
+        if (moveCount <= 0 || rounds <= 0) {
+            throw new IllegalArgumentException("moves and rounds must be positive: " + moveCount + ", " + rounds);
+        }
+        SolverConfig solverConfig = App.buildSolverConfig(EnvironmentMode.REPRODUCIBLE, SolverConfig.MOVE_THREAD_COUNT_NONE)
+            .withRandomSeed(SEED);
+        // Construction heuristics only: the state local search moves start from
+        solverConfig.setPhaseConfigList(ProblemGenerator.constructionHeuristicPhases(solverConfig));
+        DefaultSolverFactory<ScheduleSolution> solverFactory =
+            (DefaultSolverFactory<ScheduleSolution>) SolverFactory.<ScheduleSolution>create(solverConfig);
+        this.solution = solverFactory.buildSolver().solve(problem);
+        this.solutionDescriptor = solverFactory.getScoreDirectorFactory().getSolutionDescriptor();
+        this.moves = buildMoves(moveCount);
+        this.rounds = rounds;
+    }
+
+    /**
+     * Random ChangeMoves on the movable entities (slots with eligible staff, closings),
+     * entities drawn uniformly among slots and closings.
+     */
+    private List<ChangeMove<ScheduleSolution>> buildMoves(int moveCount) {
+        GenuineVariableDescriptor<ScheduleSolution> slotStaffVariable = solutionDescriptor
+            .findEntityDescriptorOrFail(ShiftSlot.class).getGenuineVariableDescriptor("staff");
+        GenuineVariableDescriptor<ScheduleSolution> closingStaffVariable = solutionDescriptor
+            .findEntityDescriptorOrFail(ClosingAssignment.class).getGenuineVariableDescriptor("staff");
+        List<ShiftSlot> slots = new ArrayList<>(solution.getShiftSlots());
+        slots.removeIf(slot -> slot.isPinned() || slot.getEligibleStaffCount() == 0);
+        List<ClosingAssignment> closings = new ArrayList<>(solution.getClosingAssignments());
+        closings.removeIf(ClosingAssignment::isPinned);
+        List<Staff> staffList = solution.getStaffList();
+        if (staffList.isEmpty()) {
+            closings.clear();
+        }
+        if (slots.isEmpty() && closings.isEmpty()) {
+            throw new IllegalStateException("No movable ShiftSlot or ClosingAssignment to profile");
+        }
+
+        Random random = new Random(SEED);
+        List<ChangeMove<ScheduleSolution>> changeMoves = new ArrayList<>(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            int entityIndex = random.nextInt(slots.size() + closings.size());
+            if (entityIndex < slots.size()) {
+                ShiftSlot slot = slots.get(entityIndex);
+                List<Staff> eligibleStaff = slot.getEligibleStaff();
+                changeMoves.add(new ChangeMove<>(slotStaffVariable, slot,
+                    eligibleStaff.get(random.nextInt(eligibleStaff.size()))));
+            } else {
+                changeMoves.add(new ChangeMove<>(closingStaffVariable, closings.get(entityIndex - slots.size()),
+                    staffList.get(random.nextInt(staffList.size()))));
+            }
+        }
+        return changeMoves;
+    }
+
+    /**
+     * Runs every configuration and returns the report lines.
+     */
+    public List<String> profile() {
+        List<String> constraintNames = Arrays.stream(
+                new BavetConstraintStreamScoreDirectorFactory<ScheduleSolution, HardMediumSoftScore>(
+                    solutionDescriptor, new ScheduleConstraintProvider(), EnvironmentMode.REPRODUCIBLE)
+                    .getConstraints())
+            .map(constraint -> constraint.getConstraintRef().constraintName())
+            .toList();
+        Map<String, Integer> matchCounts = matchCounts();
+
+        // JIT warm-up of the whole network and of the listeners alone, results discarded
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            measure(name -> true);
+            measure(name -> false);
+        }
+        // Each constraint is compared with reference runs measured right before it:
+        // alone - no constraint, all - without it. The machine drifts less between adjacent runs.
+        Measurement none = null;
+        Measurement all = null;
+        List<ConstraintCost> costs = new ArrayList<>();
+        for (String constraintName : constraintNames) {
+            Measurement noneReference = measure(name -> false);
+            Measurement alone = measure(constraintName::equals);
+            Measurement allReference = measure(name -> true);
+            Measurement without = measure(name -> !name.equals(constraintName));
+            costs.add(new ConstraintCost(constraintName,
+                alone.microsPerMove() - noneReference.microsPerMove(),
+                alone.bytesPerMove() - noneReference.bytesPerMove(),
+                alone.retainedKilobytes() - noneReference.retainedKilobytes(),
+                allReference.microsPerMove() - without.microsPerMove(),
+                matchCounts.getOrDefault(constraintName, 0)));
+            none = fastest(none, noneReference);
+            all = fastest(all, allReference);
+        }
+        if (none == null) {
+            throw new IllegalStateException("ScheduleConstraintProvider defines no constraint");
+        }
+        double constraintCost = Math.max(all.microsPerMove() - none.microsPerMove(), 0.0);
+        costs.sort(Comparator.comparingDouble(ConstraintCost::aloneMicros).reversed());
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("=== Constraint cost profile (%d moves, best of %d rounds, %d slots, %d closings, %d staff) ===",
+            moves.size(), rounds, solution.getShiftSlots().size(), solution.getClosingAssignments().size(),
+            solution.getStaffList().size()));
+        lines.add(String.format("  no constraint:   %7.2f us/move  %7d B/move  (move + shadow listeners)",
+            none.microsPerMove(), none.bytesPerMove()));
+        lines.add(String.format("  all constraints: %7.2f us/move  %7d B/move  %8.0f moves/s  ~%d KB retained",
+            all.microsPerMove(), all.bytesPerMove(), 1_000_000.0 / all.microsPerMove(), all.retainedKilobytes()));
+        lines.add(String.format("  %-56s %10s %10s %10s %7s %8s %9s",
+            "constraint", "alone us", "alone B", "removed us", "share", "matches", "~KB"));
+        for (ConstraintCost cost : costs) {
+            lines.add(String.format("  %-56s %10.2f %10d %10.2f %6.0f%% %8d %9d",
+                cost.constraintName(), cost.aloneMicros(), cost.aloneBytes(), cost.removedMicros(),
+                constraintCost > 0 ? 100.0 * cost.removedMicros() / constraintCost : 0.0,
+                cost.matchCount(), cost.aloneKilobytes()));
+        }
+        lines.add("  alone = cost with only this constraint (shared nodes included), removed = cost saved without it,");
+        lines.add("  share = removed / (all - no constraint). Timings vary by ~1 us on a busy machine: compare several runs,");
+        lines.add("  B/move, KB and matches are stable.");
+        return lines;
+    }
+
+    /**
+     * Matches per constraint on the initialized solution, with all the constraints enabled.
+     */
+    private Map<String, Integer> matchCounts() {
+        try (InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector =
+                 scoreDirectorFactory(name -> true).buildScoreDirector(false, true)) {
+            scoreDirector.setWorkingSolution(solution);
+            scoreDirector.calculateScore();
+            Map<String, Integer> matchCounts = new HashMap<>();
+            for (ConstraintMatchTotal<HardMediumSoftScore> matchTotal : scoreDirector.getConstraintMatchTotalMap().values()) {
+                matchCounts.put(matchTotal.getConstraintRef().constraintName(), matchTotal.getConstraintMatchCount());
+            }
+            return matchCounts;
+        }
+    }
+
+    private BavetConstraintStreamScoreDirectorFactory<ScheduleSolution, HardMediumSoftScore> scoreDirectorFactory(
+            Predicate<String> enabled) {
+        ScheduleConstraintProvider constraintProvider = new ScheduleConstraintProvider();
+        ConstraintProvider filteredProvider = factory -> Arrays.stream(constraintProvider.defineConstraints(factory))
+            .filter(constraint -> enabled.test(constraint.getConstraintRef().constraintName()))
+            .toArray(Constraint[]::new);
+        return new BavetConstraintStreamScoreDirectorFactory<>(solutionDescriptor, filteredProvider,
+            EnvironmentMode.REPRODUCIBLE);
+    }
+
+    /**
+     * Replays the move sequence once to warm up, then keeps the fastest of the measured rounds.
+     * Retained memory = heap with the session alive - heap once it is closed and unreachable.
+     */
+    private Measurement measure(Predicate<String> enabled) {
+        Replay replay = replayRounds(scoreDirectorFactory(enabled));
+        long retainedBytes = Math.max(replay.liveHeapBytes() - usedHeap(), 0L);
+        return new Measurement(replay.microsPerMove(), replay.bytesPerMove(), retainedBytes / 1024);
+    }
+
+    private Replay replayRounds(BavetConstraintStreamScoreDirectorFactory<ScheduleSolution, HardMediumSoftScore> factory) {
+        try (InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector = factory.buildScoreDirector(false, false)) {
+            scoreDirector.setWorkingSolution(solution);
+            scoreDirector.calculateScore();
+            long liveHeapBytes = usedHeap();
+
+            replay(scoreDirector);
+            long bestNanos = Long.MAX_VALUE;
+            long bestAllocatedBytes = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                long allocatedBefore = allocatedBytes();
+                long start = cpuNanos();
+                replay(scoreDirector);
+                bestNanos = Math.min(bestNanos, cpuNanos() - start);
+                bestAllocatedBytes = Math.min(bestAllocatedBytes, allocatedBytes() - allocatedBefore);
+            }
+            return new Replay(bestNanos / 1000.0 / moves.size(), bestAllocatedBytes / moves.size(), liveHeapBytes);
+        }
+    }
+
+    private static Measurement fastest(Measurement best, Measurement measurement) {
+        return best == null || measurement.microsPerMove() < best.microsPerMove() ? measurement : best;
+    }
+
+    private void replay(InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector) {
+        for (ChangeMove<ScheduleSolution> move : moves) {
+            Move<ScheduleSolution> undoMove = move.doMove(scoreDirector);
+            scoreDirector.calculateScore();
+            undoMove.doMove(scoreDirector);
+            scoreDirector.calculateScore();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * CPU time of the current thread: less sensitive than wall time to the other processes of the machine.
+     */
+    private static long cpuNanos() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Bytes allocated by the current thread (HotSpot), 0 when the JVM does not expose it.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+                && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0L;
+    }
+
+    private record Replay(double microsPerMove, long bytesPerMove, long liveHeapBytes) {
+    }
+
+    private record Measurement(double microsPerMove, long bytesPerMove, long retainedKilobytes) {
+    }
+
+    private record ConstraintCost(String constraintName, double aloneMicros, long aloneBytes, long aloneKilobytes,
+                                  double removedMicros, int matchCount) {
+    }
+}
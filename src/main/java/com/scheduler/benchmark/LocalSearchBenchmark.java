@@ -0,0 +1,183 @@
+package com.scheduler.benchmark;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.AcceptorType;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import ai.timefold.solver.core.impl.solver.DefaultSolver;
+
+import com.scheduler.App;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.persistence.SnapshotRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares local search acceptors on stored datasets, without the Timefold Benchmarker.
+ *
+ * Lightweight companion of SchedulerBenchmarkApp (mvn -Pbenchmark, HTML report): same variants,
+ * plain CSV output and several seeds per variant, runs from the main jar.
+ *
+ * Every variant reuses the production configuration (App.buildSolverConfig): same construction
+ * heuristics, same move selectors and filters. Only the local search acceptor/forager changes,
+ * with an identical time limit per run and no unimproved termination, so the runs compare
+ * metaheuristics and their parameters on the same problems. Runs are sequential: score
+ * calculation speeds stay comparable.
+ *
+ * Datasets are problem snapshots (SnapshotRepository, see ProblemExporter or App --save-snapshot).
+ * One line per run and a summary per variant are logged, and all runs are written as CSV
+ * to local/benchmarkReport/local-search.csv.
+ *
+ * Usage: java -cp staff-scheduler.jar com.scheduler.benchmark.LocalSearchBenchmark
+ *            [problemDir] [secondsPerRun] [seeds]
+ */
+public class LocalSearchBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSearchBenchmark.class);
+
+    static final String DEFAULT_PROBLEM_DIR = "data/problems";
+    private static final File REPORT_FILE = new File("local/benchmarkReport/local-search.csv");
+    private static final long WARMUP_SECONDS = 10L;
+
+    /**
+     * A local search setting: acceptor + accepted count limit of the forager.
+     */
+    record Variant(String name, LocalSearchAcceptorConfig acceptorConfig, int acceptedCountLimit) {
+    }
+
+    record Run(String variant, String problem, long seed, HardMediumSoftScore score, long scoreCalculationSpeed) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File problemDir = new File(args.length >= 1 ? args[0] : DEFAULT_PROBLEM_DIR);
+        long secondsPerRun = args.length >= 2 ? Long.parseLong(args[1]) : 60L;
+        int seeds = args.length >= 3 ? Integer.parseInt(args[2]) : 1;
+
+        File[] problemFiles = listProblemFiles(problemDir);
+        if (problemFiles.length == 0) {
+            log.error("No snapshot (*.json / *.json.gz) in {}. Export one with ProblemExporter first.",
+                problemDir.getAbsolutePath());
+            System.exit(1);
+        }
+
+        // JIT warm-up, not recorded: otherwise the first variant runs on cold code
+        solve(variants().get(0), problemFiles[0].getName(), new SnapshotRepository().loadSolution(problemFiles[0]),
+            0L, Math.min(secondsPerRun, WARMUP_SECONDS));
+
+        List<Run> runs = new ArrayList<>();
+        for (File problemFile : problemFiles) {
+            // solve() works on a clone, the loaded problem is reused by every run
+            ScheduleSolution problem = new SnapshotRepository().loadSolution(problemFile);
+            for (Variant variant : variants()) {
+                for (long seed = 0; seed < seeds; seed++) {
+                    Run run = solve(variant, problemFile.getName(), problem, seed, secondsPerRun);
+                    log.info("{} | {} | seed {} | {} | {} calc/s", run.variant(), run.problem(), run.seed(),
+                        run.score(), run.scoreCalculationSpeed());
+                    runs.add(run);
+                }
+            }
+        }
+
+        log.info("=== Local search benchmark ({}s per run, {} seed(s), {} problem(s)) ===",
+            secondsPerRun, seeds, problemFiles.length);
+        for (Variant variant : variants()) {
+            List<Run> variantRuns = runs.stream().filter(run -> run.variant().equals(variant.name())).toList();
+            log.info(String.format("  %-28s avg %s  %8d calc/s", variant.name(),
+                averageScore(variantRuns), variantRuns.stream().mapToLong(Run::scoreCalculationSpeed).sum() / variantRuns.size()));
+        }
+        writeReport(runs);
+        log.info("Runs written to {}", REPORT_FILE.getAbsolutePath());
+    }
+
+    /**
+     * Snapshots of a problem directory (*.json or *.json.gz), sorted by name; empty if there are none.
+     */
+    static File[] listProblemFiles(File problemDir) {
+        File[] problemFiles = problemDir.listFiles((dir, name) -> name.endsWith(".json") || name.endsWith(".json.gz"));
+        if (problemFiles == null) {
+            return new File[0];
+        }
+        Arrays.sort(problemFiles);
+        return problemFiles;
+    }
+
+    static List<Variant> variants() {
+        return List.of(
+            // Production setting first (LATE_ACCEPTANCE preset: size 400, acceptedCountLimit 1)
+            new Variant("Late Acceptance 400 (prod)", new LocalSearchAcceptorConfig().withLateAcceptanceSize(400), 1),
+            new Variant("Late Acceptance 100", new LocalSearchAcceptorConfig().withLateAcceptanceSize(100), 1),
+            new Variant("Late Acceptance 1000", new LocalSearchAcceptorConfig().withLateAcceptanceSize(1000), 1),
+            new Variant("Tabu Search (entity 7)", new LocalSearchAcceptorConfig().withEntityTabuSize(7), 1000),
+            new Variant("Simulated Annealing", new LocalSearchAcceptorConfig()
+                .withSimulatedAnnealingStartingTemperature("0hard/10medium/100soft"), 4),
+            new Variant("Great Deluge", new LocalSearchAcceptorConfig()
+                .withAcceptorTypeList(List.of(AcceptorType.GREAT_DELUGE)), 1),
+            new Variant("Hill Climbing", new LocalSearchAcceptorConfig()
+                .withAcceptorTypeList(List.of(AcceptorType.HILL_CLIMBING)), 1));
+    }
+
+    /**
+     * Production solver config with the local search acceptor/forager replaced,
+     * a fixed seed and a fixed time limit.
+     */
+    static SolverConfig buildSolverConfig(Variant variant, long seed, long secondsPerRun) {
+        SolverConfig solverConfig = App.buildSolverConfig(EnvironmentMode.REPRODUCIBLE, SolverConfig.MOVE_THREAD_COUNT_NONE)
+            .withRandomSeed(seed)
+            .withTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsPerRun));
+        for (PhaseConfig<?> phaseConfig : solverConfig.getPhaseConfigList()) {
+            if (phaseConfig instanceof LocalSearchPhaseConfig localSearchPhaseConfig) {
+                // localSearchType and an explicit acceptor are mutually exclusive
+                localSearchPhaseConfig.setLocalSearchType(null);
+                localSearchPhaseConfig.setAcceptorConfig(variant.acceptorConfig());
+                localSearchPhaseConfig.setForagerConfig(
+                    new LocalSearchForagerConfig().withAcceptedCountLimit(variant.acceptedCountLimit()));
+            }
+        }
+        return solverConfig;
+    }
+
+    private static Run solve(Variant variant, String problemName, ScheduleSolution problem, long seed,
+            long secondsPerRun) {
+        Solver<ScheduleSolution> solver = SolverFactory.<ScheduleSolution>create(
+            buildSolverConfig(variant, seed, secondsPerRun)).buildSolver();
+        ScheduleSolution solution = solver.solve(problem);
+        long speed = ((DefaultSolver<ScheduleSolution>) solver).getScoreCalculationSpeed();
+        return new Run(variant.name(), problemName, seed, solution.getScore(), speed);
+    }
+
+    private static String averageScore(List<Run> runs) {
+        double hard = runs.stream().mapToLong(run -> run.score().hardScore()).average().orElse(0);
+        double medium = runs.stream().mapToLong(run -> run.score().mediumScore()).average().orElse(0);
+        double soft = runs.stream().mapToLong(run -> run.score().softScore()).average().orElse(0);
+        return String.format("%.0fhard/%.0fmedium/%.0fsoft", hard, medium, soft);
+    }
+
+    private static void writeReport(List<Run> runs) throws Exception {
+        File reportDir = REPORT_FILE.getParentFile();
+        if (!reportDir.isDirectory() && !reportDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create report directory " + reportDir);
+        }
+        try (PrintWriter out = new PrintWriter(REPORT_FILE, "UTF-8")) {
+            out.println("variant,problem,seed,hard,medium,soft,scoreCalculationSpeed");
+            for (Run run : runs) {
+                out.printf("%s,%s,%d,%d,%d,%d,%d%n", run.variant(), run.problem(), run.seed(),
+                    run.score().hardScore(), run.score().mediumScore(), run.score().softScore(),
+                    run.scoreCalculationSpeed());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.scheduler.benchmark;
+
+import ai.timefold.solver.core.api.solver.Solver;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import ai.timefold.solver.core.impl.solver.DefaultSolver;
+
+import com.scheduler.App;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.persistence.SnapshotRepository;
+import com.scheduler.persistence.SupabaseRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the move evaluation speed (score calculations/s) against moveThreadCount.
+ *
+ * Each run solves the same problem with the production phases and a fixed time limit,
+ * so the numbers are comparable. Multi-threaded runs need Timefold Enterprise on the
+ * classpath (mvn -Penterprise package).
+ *
+ * Usage: java -cp staff-scheduler.jar com.scheduler.benchmark.MoveThreadCountBenchmark
+ *            <snapshot.json[.gz] | startDate endDate> [NONE,2,4,8,16] [seconds per run]
+ */
+public class MoveThreadCountBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MoveThreadCountBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            log.error("Usage: MoveThreadCountBenchmark <snapshot.json[.gz] | startDate endDate> [threadCounts] [secondsPerRun]");
+            System.exit(1);
+        }
+        ScheduleSolution problem;
+        int nextArg;
+        if (isDate(args[0])) {
+            if (args.length < 2) {
+                log.error("Usage: MoveThreadCountBenchmark <startDate> <endDate> [threadCounts] [secondsPerRun]");
+                System.exit(1);
+            }
+            String supabaseUrl = System.getenv().getOrDefault("SUPABASE_URL", "https://rhrdtrgwfzmuyrhkkulv.supabase.co");
+            String supabaseKey = System.getenv("SUPABASE_SERVICE_ROLE_KEY");
+            if (supabaseKey == null) {
+                log.error("SUPABASE_SERVICE_ROLE_KEY environment variable is required");
+                System.exit(1);
+            }
+            problem = new SupabaseRepository(supabaseUrl, supabaseKey)
+                .loadSolution(LocalDate.parse(args[0]), LocalDate.parse(args[1]));
+            nextArg = 2;
+        } else {
+            problem = new SnapshotRepository().loadSolution(new File(args[0]));
+            nextArg = 1;
+        }
+        String[] threadCounts = (args.length > nextArg ? args[nextArg] : "NONE,2,4,8,16").split(",");
+        long secondsPerRun = args.length > nextArg + 1 ? Long.parseLong(args[nextArg + 1]) : 30L;
+
+        List<String> results = new ArrayList<>();
+        long baselineSpeed = 0;
+        for (String threadCount : threadCounts) {
+            SolverConfig solverConfig = App.buildSolverConfig(EnvironmentMode.REPRODUCIBLE, threadCount.trim())
+                .withTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsPerRun));
+            Solver<ScheduleSolution> solver = SolverFactory.<ScheduleSolution>create(solverConfig).buildSolver();
+
+            ScheduleSolution solution = solver.solve(problem);
+            long speed = ((DefaultSolver<ScheduleSolution>) solver).getScoreCalculationSpeed();
+            if (baselineSpeed == 0) {
+                baselineSpeed = speed;
+            }
+            results.add(String.format("  moveThreadCount=%-5s %8d score calculations/s  x%.2f  score=%s",
+                threadCount.trim(), speed, baselineSpeed > 0 ? (double) speed / baselineSpeed : 0.0,
+                solution.getScore()));
+        }
+
+        log.info("=== Move thread count benchmark ({}s per run) ===", secondsPerRun);
+        results.forEach(log::info);
+    }
+
+    private static boolean isDate(String arg) {
+        try {
+            LocalDate.parse(arg);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
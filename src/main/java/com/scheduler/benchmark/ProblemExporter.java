@@ -0,0 +1,49 @@
+package com.scheduler.benchmark;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.persistence.SnapshotRepository;
+import com.scheduler.persistence.SupabaseRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.LocalDate;
+
+/**
+ * Exports a problem loaded from Supabase to a snapshot (SnapshotRepository) in the benchmark
+ * problem directory, so benchmark datasets can be replayed offline.
+ * Same as App --save-snapshot, without solving.
+ *
+ * Usage: java -cp staff-scheduler.jar com.scheduler.benchmark.ProblemExporter 2026-01-20 2026-01-26 [outputDir]
+ */
+public class ProblemExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemExporter.class);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            log.error("Usage: ProblemExporter <startDate> <endDate> [outputDir]");
+            System.exit(1);
+        }
+        LocalDate startDate = LocalDate.parse(args[0]);
+        LocalDate endDate = LocalDate.parse(args[1]);
+        File outputDir = new File(args.length >= 3 ? args[2] : LocalSearchBenchmark.DEFAULT_PROBLEM_DIR);
+
+        String supabaseUrl = System.getenv().getOrDefault("SUPABASE_URL", "https://rhrdtrgwfzmuyrhkkulv.supabase.co");
+        String supabaseKey = System.getenv("SUPABASE_SERVICE_ROLE_KEY");
+        if (supabaseKey == null) {
+            log.error("SUPABASE_SERVICE_ROLE_KEY environment variable is required");
+            System.exit(1);
+        }
+        ScheduleSolution problem = new SupabaseRepository(supabaseUrl, supabaseKey).loadSolution(startDate, endDate);
+
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create output directory " + outputDir);
+        }
+        File outputFile = new File(outputDir, "schedule-" + startDate + "-" + endDate + ".json.gz");
+        new SnapshotRepository().saveSolution(problem, startDate, endDate, outputFile);
+        log.info("Problem exported: {} ({} slots, {} closing assignments)", outputFile.getAbsolutePath(),
+            problem.getShiftSlots().size(), problem.getClosingAssignments().size());
+    }
+}
@@ -0,0 +1,245 @@
+package com.scheduler.benchmark;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+
+import com.scheduler.App;
+import com.scheduler.domain.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic problems, without Supabase: JMH micro-benchmarks (BenchmarkProblem)
+ * and solver tests (TestProblems) share this generator and only differ by their Shape.
+ *
+ * 3 sites, weekdays only, about 0.8 slot per staff member and half-day spread over the locations,
+ * flexible and part-time staff, preferred physicians. Locations are surgical first, then with
+ * closing (1R + 2F per day), then plain consultations; every third one is distant.
+ * The same shape and seed always produce the same problem.
+ */
+public final class ProblemGenerator {
+
+    private static final LocalDate START_DATE = LocalDate.of(2026, 1, 5); // lundi
+    private static final String[] SITE_NAMES = {"Porrentruy", "Delémont", "Moutier"};
+
+    /**
+     * What differs between the generated problems.
+     *
+     * @param locations number of locations
+     * @param surgicalLocations the first locations are surgical ("C")
+     * @param closingLocations the next locations have a closing
+     * @param skills number of skills
+     * @param physicians number of physicians
+     * @param absences one absence per day (random staff and half-day)
+     * @param adminFullDays one admin full-day shift (periodId=0) every Wednesday
+     */
+    public record Shape(int locations, int surgicalLocations, int closingLocations, int skills, int physicians,
+            boolean absences, boolean adminFullDays) {
+
+        /**
+         * Proportions of a production week: 12 locations (2 surgical, 4 with closing), 6 skills.
+         */
+        public static final Shape BENCHMARK = new Shape(12, 2, 4, 6, 20, false, false);
+
+        /**
+         * Small problems for the tests, with the edge cases: absences and full-day slots.
+         */
+        public static final Shape TEST = new Shape(6, 1, 2, 3, 5, true, true);
+    }
+
+    private ProblemGenerator() {
+    }
+
+    public static ScheduleSolution generate(Shape shape, int staffCount, int weeks, long seed) {
+        Random random = new Random(seed);
+        UUID[] siteIds = ids(1, SITE_NAMES.length);
+        UUID[] skillIds = ids(2, shape.skills());
+        UUID[] physicianIds = ids(3, shape.physicians());
+
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < shape.locations(); i++) {
+            Location location = new Location(new UUID(4, i), "Location " + i);
+            location.setSiteId(siteIds[i % siteIds.length]);
+            location.setStaffingType(i < shape.surgicalLocations() ? "C" : "A");
+            location.setHasClosing(i >= shape.surgicalLocations()
+                && i < shape.surgicalLocations() + shape.closingLocations());
+            location.setDistanceType(i % 3 == 2 ? "distant" : "reference");
+            locations.add(location);
+        }
+
+        List<Staff> staffList = new ArrayList<>();
+        for (int i = 0; i < staffCount; i++) {
+            UUID staffId = new UUID(5, i);
+            Staff staff = new Staff(staffId, "Prénom" + i, "Nom" + i);
+            staff.setUserId(new UUID(6, i));
+            staff.setActive(true);
+            staff.setWorkPercentage(random.nextInt(4) == 0 ? 50.0 : 100.0);
+            if (i % 4 == 0) {
+                staff.setHasFlexibleSchedule(true);
+                staff.setDaysPerWeek(2 + random.nextInt(3));
+            }
+            for (int k = 0; k < skillIds.length; k++) {
+                if (k == i % skillIds.length || random.nextInt(3) == 0) {
+                    staff.getSkills().add(new StaffSkill(staffId, skillIds[k], 1 + random.nextInt(4)));
+                }
+            }
+            for (int k = 0; k < siteIds.length; k++) {
+                if (k == i % siteIds.length || random.nextBoolean()) {
+                    staff.getSites().add(new StaffSite(staffId, siteIds[k], 1 + random.nextInt(4)));
+                }
+            }
+            for (int day = 1; day <= 5; day++) {
+                for (int period = 1; period <= 2; period++) {
+                    if (random.nextInt(10) > 1) {
+                        staff.getAvailabilities().add(new StaffAvailability(staffId, day, period));
+                    }
+                }
+            }
+            for (int k = 0; k < 3; k++) {
+                staff.getPreferredPhysicians().add(new StaffPhysician(staffId,
+                    physicianIds[random.nextInt(physicianIds.length)], 1 + random.nextInt(3)));
+            }
+            staffList.add(staff);
+        }
+
+        // ~0.8 slot per staff and half-day, spread over the locations
+        int slotsPerHalfDay = Math.max(locations.size(), staffCount * 8 / 10);
+        List<Absence> absences = new ArrayList<>();
+        List<Shift> shifts = new ArrayList<>();
+        List<ClosingAssignment> closingAssignments = new ArrayList<>();
+        for (int d = 0; d < weeks * 7; d++) {
+            LocalDate date = START_DATE.plusDays(d);
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            if (shape.absences()) {
+                absences.add(new Absence(staffList.get(random.nextInt(staffCount)).getUserId(), date,
+                    1 + random.nextInt(2)));
+            }
+            for (int period = 1; period <= 2; period++) {
+                for (int i = 0; i < locations.size(); i++) {
+                    Location location = locations.get(i);
+                    int quantity = slotsPerHalfDay / locations.size() + (i < slotsPerHalfDay % locations.size() ? 1 : 0);
+                    Shift shift = new Shift(location.getId(), date, period,
+                        skillIds[random.nextInt(skillIds.length)], quantity);
+                    describe(shift, location, SITE_NAMES[i % siteIds.length],
+                        location.isSurgical() ? "surgical" : "consultation");
+                    shift.setHasClosing(location.isHasClosing());
+                    shift.setNeeds1r(location.isHasClosing());
+                    shift.setNeeds2f(location.isHasClosing());
+                    Set<UUID> shiftPhysicians = new HashSet<>();
+                    shiftPhysicians.add(physicianIds[random.nextInt(physicianIds.length)]);
+                    shift.setPhysicianIds(shiftPhysicians);
+                    shift.setId(new UUID(7, shifts.size()));
+                    shifts.add(shift);
+                }
+            }
+            if (shape.adminFullDays() && date.getDayOfWeek() == DayOfWeek.WEDNESDAY) {
+                Shift adminShift = new Shift(locations.get(0).getId(), date, 0, skillIds[0], 1);
+                describe(adminShift, locations.get(0), SITE_NAMES[0], "admin");
+                adminShift.setAdmin(true);
+                adminShift.setId(new UUID(7, shifts.size()));
+                shifts.add(adminShift);
+            }
+            for (Location location : locations) {
+                if (!location.isHasClosing()) {
+                    continue;
+                }
+                for (ClosingRole role : new ClosingRole[] {ClosingRole.ROLE_1R, ClosingRole.ROLE_2F}) {
+                    ClosingAssignment closingAssignment = new ClosingAssignment(location.getId(), location.getName(), date, role);
+                    closingAssignment.setId(new UUID(8, closingAssignments.size()));
+                    closingAssignments.add(closingAssignment);
+                }
+            }
+        }
+
+        List<ShiftSlot> slots = new ArrayList<>();
+        for (Shift shift : shifts) {
+            for (int i = 0; i < shift.getQuantityNeeded(); i++) {
+                ShiftSlot slot = new ShiftSlot(shift, i);
+                slot.setId(new UUID(9, slots.size()));
+                slots.add(slot);
+            }
+        }
+
+        ScheduleSolution solution = new ScheduleSolution();
+        solution.setLocations(locations);
+        solution.setStaffList(staffList);
+        solution.setAbsences(absences);
+        solution.setShifts(shifts);
+        solution.setShiftSlots(slots);
+        solution.setClosingAssignments(closingAssignments);
+        solution.initializeMaps();
+        return solution;
+    }
+
+    /**
+     * Problem initialized by the production construction heuristics (no local search),
+     * i.e. the state local search moves start from.
+     */
+    public static ScheduleSolution generateInitialized(Shape shape, int staffCount, int weeks, long seed) {
+        SolverConfig solverConfig = App.buildSolverConfig(EnvironmentMode.REPRODUCIBLE, SolverConfig.MOVE_THREAD_COUNT_NONE)
+            .withRandomSeed(seed);
+        solverConfig.setPhaseConfigList(constructionHeuristicPhases(solverConfig));
+        return SolverFactory.<ScheduleSolution>create(solverConfig).buildSolver()
+            .solve(generate(shape, staffCount, weeks, seed));
+    }
+
+    /**
+     * The construction heuristic phases of a solver config, in order.
+     */
+    public static List<PhaseConfig> constructionHeuristicPhases(SolverConfig solverConfig) {
+        List<PhaseConfig> phaseConfigs = new ArrayList<>();
+        for (PhaseConfig<?> phaseConfig : solverConfig.getPhaseConfigList()) {
+            if (phaseConfig instanceof ConstructionHeuristicPhaseConfig) {
+                phaseConfigs.add(phaseConfig);
+            }
+        }
+        return phaseConfigs;
+    }
+
+    /**
+     * Score director with the production configuration, on the given working solution.
+     */
+    public static InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> buildScoreDirector(
+            ScheduleSolution solution, App.ScoreCalculation scoreCalculation) {
+        SolverConfig solverConfig = App.buildSolverConfig(EnvironmentMode.REPRODUCIBLE,
+            SolverConfig.MOVE_THREAD_COUNT_NONE, scoreCalculation);
+        DefaultSolverFactory<ScheduleSolution> solverFactory =
+            (DefaultSolverFactory<ScheduleSolution>) SolverFactory.<ScheduleSolution>create(solverConfig);
+        InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector =
+            solverFactory.<HardMediumSoftScore>getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(solution);
+        scoreDirector.calculateScore();
+        return scoreDirector;
+    }
+
+    private static void describe(Shift shift, Location location, String siteName, String needType) {
+        shift.setLocationName(location.getName());
+        shift.setSiteId(location.getSiteId());
+        shift.setSiteName(siteName);
+        shift.setSkillName("Skill");
+        shift.setNeedType(needType);
+    }
+
+    private static UUID[] ids(long prefix, int count) {
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = new UUID(prefix, i);
+        }
+        return ids;
+    }
+}
@@ -1,10 +1,14 @@
 package com.scheduler.domain;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.entity.PlanningPin;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
+import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
+import com.scheduler.solver.ClosingFullDayListener;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -18,23 +22,48 @@ import java.util.UUID;
  * each closing role, subject to constraints (must work at location, 1R != 2F, etc.)
  */
 @PlanningEntity
-public class ClosingAssignment {
+public class ClosingAssignment implements WorkloadItem {
 
     @PlanningId
     private UUID id;
 
     // Problem facts (FIXED - define what closing responsibility needs to be filled)
     private UUID locationId;
+    private int locationIndex = KeyIndex.NO_INDEX; // Dense key (ScheduleSolution.initializeMaps)
     private String locationName;
     private LocalDate date;
+    // Day key for the joiners (see Shift.dayIndexOf), boxed once like the Shift keys
+    private int dayIndex;
+    private Integer dayKey;
     private ClosingRole role;  // 1R, 2F, or 3F
+    // AM / PM slots of this location on this date (ScheduleSolution.initializeMaps).
+    // Fixed list, the staff of each slot is read live by ClosingAssignmentChangeMoveFilter.
+    private List<ShiftSlot> locationSlots = List.of();
 
     // Planning variable - the solver chooses which staff member
     @PlanningVariable(valueRangeProviderRefs = "staffRange")
     private Staff staff;
 
+    // Pinned closings keep their staff (weeks already solved by RollingHorizonSolver)
+    @PlanningPin
+    private boolean pinned;
+
+    // SHADOW VARIABLE: half-days the staff works at this location on this date
+    // (bit 1 = AM, bit 2 = PM, null if unassigned). Used by H-CLOSING-FULLDAY-AM / PM.
+    @ShadowVariable(variableListenerClass = ClosingFullDayListener.class,
+                    sourceEntityClass = ClosingAssignment.class,
+                    sourceVariableName = "staff")
+    @ShadowVariable(variableListenerClass = ClosingFullDayListener.class,
+                    sourceEntityClass = ShiftSlot.class,
+                    sourceVariableName = "staff")
+    private Integer workedHalfDays;
+
+    public static final int WORKED_AM = 1;
+    public static final int WORKED_PM = 2;
+
     public ClosingAssignment() {
         this.id = UUID.randomUUID();
+        updateDayKeys();
     }
 
     public ClosingAssignment(UUID locationId, String locationName, LocalDate date, ClosingRole role) {
@@ -43,6 +72,7 @@ public class ClosingAssignment {
         this.locationName = locationName;
         this.date = date;
         this.role = role;
+        updateDayKeys();
     }
 
     // Getters and Setters
@@ -62,6 +92,14 @@ public class ClosingAssignment {
         this.locationId = locationId;
     }
 
+    public int getLocationIndex() {
+        return locationIndex;
+    }
+
+    public void setLocationIndex(int locationIndex) {
+        this.locationIndex = locationIndex;
+    }
+
     public String getLocationName() {
         return locationName;
     }
@@ -76,6 +114,20 @@ public class ClosingAssignment {
 
     public void setDate(LocalDate date) {
         this.date = date;
+        updateDayKeys();
+    }
+
+    private void updateDayKeys() {
+        dayIndex = Shift.dayIndexOf(date);
+        dayKey = dayIndex;
+    }
+
+    public int getDayIndex() {
+        return dayIndex;
+    }
+
+    public Integer getDayKey() {
+        return dayKey;
     }
 
     public ClosingRole getRole() {
@@ -90,10 +142,66 @@ public class ClosingAssignment {
         return staff;
     }
 
+    public List<ShiftSlot> getLocationSlots() {
+        return locationSlots;
+    }
+
+    public void setLocationSlots(List<ShiftSlot> locationSlots) {
+        this.locationSlots = locationSlots;
+    }
+
+    /**
+     * True if the staff currently works an AM or PM slot of this location on this date.
+     */
+    public boolean isStaffWorkingAtLocation(Staff candidate) {
+        for (ShiftSlot slot : locationSlots) {
+            if (slot.getStaff() == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if at least one staff currently works an AM or PM slot of this location on this date.
+     */
+    public boolean hasStaffWorkingAtLocation() {
+        for (ShiftSlot slot : locationSlots) {
+            if (slot.getStaff() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Integer getWorkedHalfDays() {
+        return workedHalfDays;
+    }
+
+    public void setWorkedHalfDays(Integer workedHalfDays) {
+        this.workedHalfDays = workedHalfDays;
+    }
+
+    public boolean isWorkingAm() {
+        return workedHalfDays != null && (workedHalfDays & WORKED_AM) != 0;
+    }
+
+    public boolean isWorkingPm() {
+        return workedHalfDays != null && (workedHalfDays & WORKED_PM) != 0;
+    }
+
     public void setStaff(Staff staff) {
         this.staff = staff;
     }
 
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
     @Override
     public String toString() {
         String staffName = staff != null ? staff.getFullName() : "unassigned";
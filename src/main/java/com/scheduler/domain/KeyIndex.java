@@ -0,0 +1,45 @@
+package com.scheduler.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dense integer keys (0..N-1) for the UUIDs of one kind of fact (sites, skills, ...).
+ *
+ * Built once by ScheduleSolution.initializeMaps, in problem order, so the same problem always gets
+ * the same indexes. The solver hot paths (joiners, Staff lookups, eligibility) compare and index
+ * arrays by these ints; UUIDs stay at the persistence boundary.
+ * A null (or unknown) UUID is NO_INDEX. NO_INDEX is a plain int: Joiners.equal and == match two
+ * NO_INDEX keys, so every comparison where a missing key must not match filters it explicitly
+ * (SS3 / SS4 in StaffDayProfile, H-CLOSING 1R != 2F, ClosingFullDayListener).
+ */
+public final class KeyIndex {
+
+    public static final int NO_INDEX = -1;
+
+    private final Map<UUID, Integer> indexById = new HashMap<>();
+
+    /**
+     * Returns the index of this id, assigning the next one on first sight.
+     */
+    public int register(UUID id) {
+        if (id == null) {
+            return NO_INDEX;
+        }
+        Integer index = indexById.get(id);
+        if (index == null) {
+            index = indexById.size();
+            indexById.put(id, index);
+        }
+        return index;
+    }
+
+    public int indexOf(UUID id) {
+        return id == null ? NO_INDEX : indexById.getOrDefault(id, NO_INDEX);
+    }
+
+    public int size() {
+        return indexById.size();
+    }
+}
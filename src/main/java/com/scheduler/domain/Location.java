@@ -14,6 +14,7 @@ public class Location {
     private String staffingType; // A, B, C, D
     private boolean hasClosing;
     private String distanceType; // 'reference' or 'distant'
+    private int index = KeyIndex.NO_INDEX; // Dense key (ScheduleSolution.initializeMaps)
 
     public Location() {}
 
@@ -34,6 +35,9 @@ public class Location {
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
     public UUID getSiteId() { return siteId; }
     public void setSiteId(UUID siteId) { this.siteId = siteId; }
 
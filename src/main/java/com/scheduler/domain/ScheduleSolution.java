@@ -8,6 +8,7 @@ import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,8 +49,8 @@ public class ScheduleSolution {
     @PlanningEntityCollectionProperty
     private List<ClosingAssignment> closingAssignments = new ArrayList<>();
 
-    // Value range for ShiftSlot.staff
-    // Note: Le filtrage des candidats invalides est fait via ShiftSlotChangeMoveFilter
+    // Value range for ClosingAssignment.staff
+    // Note: ShiftSlot.staff uses its own entity-dependent range (ShiftSlot.getEligibleStaff)
     @ValueRangeProvider(id = "staffRange")
     public List<Staff> getStaffRange() {
         return staffList;
@@ -62,6 +63,11 @@ public class ScheduleSolution {
     @PlanningScore
     private HardMediumSoftScore score;
 
+    // Burden sites (S-WORKLOAD fairness): site names or UUIDs, case-insensitive.
+    // Resolved to site indexes and flagged on each Shift (Shift.isBurdenSite) by initializeMaps / setBurdenSites
+    public static final List<String> DEFAULT_BURDEN_SITES = List.of("Porrentruy");
+    private List<String> burdenSites = DEFAULT_BURDEN_SITES;
+
     // Lookup maps (for constraint checks)
     private Map<UUID, Location> locationMap = new HashMap<>();
     private Map<UUID, Staff> staffByUserId = new HashMap<>();
@@ -69,23 +75,102 @@ public class ScheduleSolution {
     public ScheduleSolution() {}
 
     // Initialize lookup maps after loading data
+    // Also assigns the dense integer keys (KeyIndex) of staff, locations, sites, skills and physicians:
+    // the solver compares these ints, UUIDs are only used by the persistence and the report.
     public void initializeMaps() {
+        KeyIndex locationKeys = new KeyIndex();
+        KeyIndex siteKeys = new KeyIndex();
+        KeyIndex skillKeys = new KeyIndex();
+        KeyIndex physicianKeys = new KeyIndex();
         locationMap.clear();
         for (Location loc : locations) {
             locationMap.put(loc.getId(), loc);
+            loc.setIndex(locationKeys.register(loc.getId()));
+            siteKeys.register(loc.getSiteId());
+        }
+        // Link locations to shifts
+        for (Shift shift : shifts) {
+            shift.setLocation(locationMap.get(shift.getLocationId()));
+            shift.indexKeys(locationKeys, siteKeys, skillKeys, physicianKeys);
+        }
+        for (ClosingAssignment ca : closingAssignments) {
+            ca.setLocationIndex(locationKeys.register(ca.getLocationId()));
         }
         staffByUserId.clear();
         for (Staff s : staffList) {
+            s.getSkills().forEach(ss -> skillKeys.register(ss.getSkillId()));
+            s.getSites().forEach(ss -> siteKeys.register(ss.getSiteId()));
+            s.getPreferredPhysicians().forEach(sp -> physicianKeys.register(sp.getPhysicianId()));
+        }
+        for (int i = 0; i < staffList.size(); i++) {
+            Staff s = staffList.get(i);
+            s.setIndex(i);
             if (s.getUserId() != null) {
                 staffByUserId.put(s.getUserId(), s);
             }
+            // Immutable lookup caches, safe to share between move threads
+            s.freezeCaches(skillKeys, siteKeys, physicianKeys);
         }
-        // Link locations to shifts
+        // SS1 / SS2 rewards per (shift, staff): physician presence and preferences are loaded by now
         for (Shift shift : shifts) {
-            shift.setLocation(locationMap.get(shift.getLocationId()));
+            shift.initializeAffinity(staffList);
+        }
+        // Eligible staff per slot (BitSet + entity value range)
+        for (ShiftSlot slot : shiftSlots) {
+            slot.initializeEligibility(staffList);
+        }
+        linkClosingSlots();
+        flagBurdenSites();
+    }
+
+    /**
+     * Gives each closing the AM / PM slots of its location and date (candidate staff of the role).
+     * Key: location index in the high 32 bits, day index in the low 32 bits.
+     */
+    private void linkClosingSlots() {
+        Map<Long, List<ShiftSlot>> slotsByLocationDay = new HashMap<>();
+        for (ShiftSlot slot : shiftSlots) {
+            int periodId = slot.getPeriodId();
+            if ((periodId == 1 || periodId == 2) && slot.getLocationIndex() != KeyIndex.NO_INDEX) {
+                slotsByLocationDay.computeIfAbsent(locationDayKey(slot.getLocationIndex(), slot.getDayIndex()),
+                    k -> new ArrayList<>()).add(slot);
+            }
+        }
+        for (ClosingAssignment ca : closingAssignments) {
+            ca.setLocationSlots(slotsByLocationDay.getOrDefault(
+                locationDayKey(ca.getLocationIndex(), ca.getDayIndex()), List.of()));
         }
     }
 
+    private static long locationDayKey(int locationIndex, int dayIndex) {
+        return ((long) locationIndex << 32) | (dayIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Resolves burdenSites to site indexes (a site matches by name or by UUID),
+     * then sets Shift.burdenSite once: the constraints test the flag, not the site name.
+     */
+    private void flagBurdenSites() {
+        BitSet burdenSiteIndexes = new BitSet();
+        for (Shift shift : shifts) {
+            if (shift.getSiteIndex() != KeyIndex.NO_INDEX && isBurdenSite(shift.getSiteId(), shift.getSiteName())) {
+                burdenSiteIndexes.set(shift.getSiteIndex());
+            }
+        }
+        for (Shift shift : shifts) {
+            shift.setBurdenSite(shift.getSiteIndex() != KeyIndex.NO_INDEX && burdenSiteIndexes.get(shift.getSiteIndex()));
+        }
+    }
+
+    private boolean isBurdenSite(UUID siteId, String siteName) {
+        for (String site : burdenSites) {
+            if (site.equalsIgnoreCase(siteName) || (siteId != null && site.equalsIgnoreCase(siteId.toString()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public Location getLocationById(UUID id) {
         return locationMap.get(id);
     }
@@ -120,6 +205,16 @@ public class ScheduleSolution {
     public List<ClosingAssignment> getClosingAssignments() { return closingAssignments; }
     public void setClosingAssignments(List<ClosingAssignment> closingAssignments) { this.closingAssignments = closingAssignments; }
 
+    public List<String> getBurdenSites() { return burdenSites; }
+
+    /**
+     * Replaces the burden sites and re-flags the shifts (the problem may already be initialized).
+     */
+    public void setBurdenSites(List<String> burdenSites) {
+        this.burdenSites = List.copyOf(burdenSites);
+        flagBurdenSites();
+    }
+
     public HardMediumSoftScore getScore() { return score; }
     public void setScore(HardMediumSoftScore score) { this.score = score; }
 }
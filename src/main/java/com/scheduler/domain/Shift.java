@@ -1,7 +1,10 @@
 package com.scheduler.domain;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -21,8 +24,16 @@ public class Shift {
     private String locationName;
     private UUID siteId;
     private String siteName;
+    private boolean burdenSite; // Demanding site counted by S-WORKLOAD (ScheduleSolution.burdenSites)
     private LocalDate date;
+    private LocalDate weekStart; // Monday of the week of date (per-week rules: M-FLEX-1, rolling horizon)
     private int periodId; // 1=morning, 2=afternoon, 0=full_day (for closing)
+    // Packed time keys for the constraint joiners (one int instead of LocalDate + periodId).
+    // Joiner keys are objects: the keys are boxed once here, an int getter would allocate
+    // an Integer (epoch days are outside the Integer cache) on every Bavet insert/update.
+    private int dayIndex = NO_DAY;               // date.toEpochDay()
+    private Integer dayKey = dayIndex;
+    private Integer timeKey = timeKey(NO_DAY, 0); // dayIndex * 4 + periodId
     private UUID skillId;
     private String skillName;
     private int quantityNeeded;
@@ -46,6 +57,19 @@ public class Shift {
     // Physicians present at this shift (location+date+period)
     private Set<UUID> physicianIds = new HashSet<>();
 
+    // Dense keys (KeyIndex), assigned by ScheduleSolution.initializeMaps for the solver hot paths
+    private int locationIndex = KeyIndex.NO_INDEX;
+    private int siteIndex = KeyIndex.NO_INDEX;
+    private int skillIndex = KeyIndex.NO_INDEX;
+    private int[] physicianIndexes = new int[0];
+
+    // SS1 / SS2 rewards by Staff.getIndex(), built by ScheduleSolution.initializeMaps (initializeAffinity).
+    // Bits 0-7 = physician reward, bits 8-15 = skill reward. Read-only afterwards: shared between
+    // planning clones and move threads.
+    private int[] affinityByStaffIndex;
+    private static final int SKILL_REWARD_SHIFT = 8;
+    private static final int REWARD_MASK = 0xFF;
+
     // Physician names (comma-separated) for display
     private String physicianNames;
 
@@ -57,11 +81,92 @@ public class Shift {
         this.id = UUID.randomUUID();
         this.locationId = locationId;
         this.date = date;
+        this.weekStart = weekStartOf(date);
         this.periodId = periodId;
+        updateTimeKeys();
         this.skillId = skillId;
         this.quantityNeeded = quantityNeeded;
     }
 
+    /**
+     * Assigns the dense keys of this shift (location, site, skill, physicians).
+     */
+    public void indexKeys(KeyIndex locationKeys, KeyIndex siteKeys, KeyIndex skillKeys, KeyIndex physicianKeys) {
+        locationIndex = locationKeys.register(locationId);
+        siteIndex = siteKeys.register(siteId);
+        skillIndex = skillKeys.register(skillId);
+        physicianIndexes = physicianIds == null ? new int[0]
+            : physicianIds.stream().mapToInt(physicianKeys::register).toArray();
+    }
+
+    // ========== Staff affinity (SS1, SS2) ==========
+
+    /**
+     * Builds the affinity table of this shift: physician + skill reward of every staff.
+     * Physicians, skills and staff preferences are problem facts, so the rewards never change
+     * during solving. Staff indexes and key arrays must already be built (see ScheduleSolution.initializeMaps).
+     */
+    public void initializeAffinity(List<Staff> staffList) {
+        int[] affinity = new int[staffList.size()];
+        for (Staff candidate : staffList) {
+            affinity[candidate.getIndex()] = computeAffinity(candidate);
+        }
+        this.affinityByStaffIndex = affinity;
+    }
+
+    /**
+     * SS1: reward of the best preferred physician of this staff present on the shift (P1=100, P2=60, P3=30).
+     */
+    public int getPhysicianReward(Staff candidate) {
+        return affinity(candidate) & REWARD_MASK;
+    }
+
+    /**
+     * SS2: reward of the skill preference of this staff for the shift skill (P1=80, P2=60, P3=40, P4=20).
+     */
+    public int getSkillReward(Staff candidate) {
+        return (affinity(candidate) >>> SKILL_REWARD_SHIFT) & REWARD_MASK;
+    }
+
+    private int affinity(Staff candidate) {
+        int index = candidate.getIndex();
+        if (affinityByStaffIndex != null && index >= 0 && index < affinityByStaffIndex.length) {
+            return affinityByStaffIndex[index];
+        }
+        return computeAffinity(candidate);
+    }
+
+    private int computeAffinity(Staff candidate) {
+        int bestPriority = 0;
+        for (int physicianIndex : physicianIndexes) {
+            int priority = candidate.getPhysicianPriority(physicianIndex);
+            if (priority > 0 && (bestPriority == 0 || priority < bestPriority)) {
+                bestPriority = priority;
+            }
+        }
+        int skillPreference = skillIndex != KeyIndex.NO_INDEX ? candidate.getSkillPreference(skillIndex) : 0;
+        return physicianRewardOf(bestPriority) | skillRewardOf(skillPreference) << SKILL_REWARD_SHIFT;
+    }
+
+    private static int physicianRewardOf(int priority) {
+        return switch (priority) {
+            case 1 -> 100;
+            case 2 -> 60;
+            case 3 -> 30;
+            default -> 0;
+        };
+    }
+
+    private static int skillRewardOf(int preference) {
+        return switch (preference) {
+            case 1 -> 80;
+            case 2 -> 60;
+            case 3 -> 40;
+            case 4 -> 20;
+            default -> 0;
+        };
+    }
+
     public String getPeriodName() {
         return periodId == 1 ? "morning" : "afternoon";
     }
@@ -74,10 +179,55 @@ public class Shift {
     public void setLocationId(UUID locationId) { this.locationId = locationId; }
 
     public LocalDate getDate() { return date; }
-    public void setDate(LocalDate date) { this.date = date; }
+    public void setDate(LocalDate date) {
+        this.date = date;
+        this.weekStart = weekStartOf(date);
+        updateTimeKeys();
+    }
+
+    public LocalDate getWeekStart() { return weekStart; }
+
+    /**
+     * Monday of the week containing this date (null-safe).
+     */
+    public static LocalDate weekStartOf(LocalDate date) {
+        return date != null ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : null;
+    }
 
     public int getPeriodId() { return periodId; }
-    public void setPeriodId(int periodId) { this.periodId = periodId; }
+    public void setPeriodId(int periodId) {
+        this.periodId = periodId;
+        updateTimeKeys();
+    }
+
+    // ========== Packed time keys ==========
+
+    // Day index of a null date (matches only other null dates, like Joiners.equal on LocalDate)
+    public static final int NO_DAY = Integer.MIN_VALUE / 4;
+
+    public static int dayIndexOf(LocalDate date) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : NO_DAY;
+    }
+
+    /**
+     * Packs a day index and a period (0=full day, 1=AM, 2=PM) into one int.
+     * The PM key of a day is its AM key + 1.
+     */
+    public static int timeKey(int dayIndex, int periodId) {
+        return dayIndex * 4 + periodId;
+    }
+
+    private void updateTimeKeys() {
+        dayIndex = dayIndexOf(date);
+        dayKey = dayIndex;
+        timeKey = timeKey(dayIndex, periodId);
+    }
+
+    public int getDayIndex() { return dayIndex; }
+
+    public Integer getDayKey() { return dayKey; }
+
+    public Integer getTimeKey() { return timeKey; }
 
     public UUID getSkillId() { return skillId; }
     public void setSkillId(UUID skillId) { this.skillId = skillId; }
@@ -143,6 +293,17 @@ public class Shift {
         return physicianIds.contains(physicianId);
     }
 
+    public int getLocationIndex() { return locationIndex; }
+
+    public int getSiteIndex() { return siteIndex; }
+
+    public boolean isBurdenSite() { return burdenSite; }
+    public void setBurdenSite(boolean burdenSite) { this.burdenSite = burdenSite; }
+
+    public int getSkillIndex() { return skillIndex; }
+
+    public int[] getPhysicianIndexes() { return physicianIndexes; }
+
     public String getPhysicianNames() { return physicianNames; }
     public void setPhysicianNames(String physicianNames) { this.physicianNames = physicianNames; }
 
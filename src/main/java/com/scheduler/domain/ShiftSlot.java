@@ -1,14 +1,20 @@
 package com.scheduler.domain;
 
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.entity.PlanningPin;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
 import ai.timefold.solver.core.api.domain.variable.ShadowVariable;
 import com.scheduler.solver.FullDayWorkListener;
 import com.scheduler.solver.WorkDayCountListener;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Represents a single staffing slot to be filled.
@@ -21,24 +27,38 @@ import java.util.UUID;
  * A slot can be unassigned (allowsUnassigned=true) in overconstrained scenarios.
  */
 @PlanningEntity
-public class ShiftSlot {
+public class ShiftSlot implements WorkloadItem {
+
+    private static final Integer NO_SHIFT_DAY_KEY = Shift.NO_DAY;
+    private static final Integer NO_SHIFT_TIME_KEY = Shift.timeKey(Shift.NO_DAY, 0);
 
     @PlanningId
     private UUID id;
+    private int idHash; // id.hashCode(), cached: slots are hashed by every listener / calculator index
 
     // Problem facts (FIXED - define what needs to be covered)
     private Shift shift;        // The parent shift (contains location, date, period, skill, needType)
     private int slotIndex;      // 0, 1, 2... to distinguish slots of the same shift
 
+    // Eligible staff (skill + site + availability), built once after loading.
+    // Read-only afterwards: shared by reference between planning clones and move threads.
+    private BitSet eligibleStaffIndexes;  // bit = Staff.getIndex()
+    private List<Staff> eligibleStaff;     // entity-dependent value range
+
     // Planning variable - the solver chooses which staff member
     // allowsUnassigned=true : null means "slot not filled" (overconstrained)
-    @PlanningVariable(valueRangeProviderRefs = "staffRange", allowsUnassigned = true)
+    // Value range = eligible staff only, so CH and LS never generate ineligible candidates
+    @PlanningVariable(valueRangeProviderRefs = "eligibleStaffRange", allowsUnassigned = true)
     private Staff staff;
 
+    // Pinned slots keep their staff (weeks already solved by RollingHorizonSolver)
+    @PlanningPin
+    private boolean pinned;
+
     // NOTE: closingRole removed - closing responsibilities are now handled via ClosingAssignment entity
 
-    // SHADOW VARIABLE 1: Number of distinct days this staff works
-    // Used for flexible staff max days constraint
+    // SHADOW VARIABLE 1: Number of distinct days this staff works in the week of this slot
+    // Used for flexible staff max days per week constraint
     @ShadowVariable(variableListenerClass = WorkDayCountListener.class,
                     sourceEntityClass = ShiftSlot.class,
                     sourceVariableName = "staff")
@@ -52,11 +72,11 @@ public class ShiftSlot {
     private Boolean isWorkingFullDay;
 
     public ShiftSlot() {
-        this.id = UUID.randomUUID();
+        setId(UUID.randomUUID());
     }
 
     public ShiftSlot(Shift shift, int slotIndex) {
-        this.id = UUID.randomUUID();
+        setId(UUID.randomUUID());
         this.shift = shift;
         this.slotIndex = slotIndex;
     }
@@ -67,6 +87,24 @@ public class ShiftSlot {
         return shift != null ? shift.getDate() : null;
     }
 
+    public int getDayIndex() {
+        return shift != null ? shift.getDayIndex() : Shift.NO_DAY;
+    }
+
+    // Boxed day index, for the groupBy keys
+    public Integer getDayKey() {
+        return shift != null ? shift.getDayKey() : NO_SHIFT_DAY_KEY;
+    }
+
+    // Packed date + period key (Shift.timeKey), for the joiners
+    public Integer getTimeKey() {
+        return shift != null ? shift.getTimeKey() : NO_SHIFT_TIME_KEY;
+    }
+
+    public LocalDate getWeekStart() {
+        return shift != null ? shift.getWeekStart() : null;
+    }
+
     public int getPeriodId() {
         return shift != null ? shift.getPeriodId() : 0;
     }
@@ -87,6 +125,20 @@ public class ShiftSlot {
         return shift != null ? shift.getSiteId() : null;
     }
 
+    // Dense keys (KeyIndex), NO_INDEX without shift / id
+
+    public int getLocationIndex() {
+        return shift != null ? shift.getLocationIndex() : KeyIndex.NO_INDEX;
+    }
+
+    public int getSiteIndex() {
+        return shift != null ? shift.getSiteIndex() : KeyIndex.NO_INDEX;
+    }
+
+    public int getSkillIndex() {
+        return shift != null ? shift.getSkillIndex() : KeyIndex.NO_INDEX;
+    }
+
     public String getSiteName() {
         return shift != null ? shift.getSiteName() : null;
     }
@@ -115,6 +167,10 @@ public class ShiftSlot {
         return shift != null && shift.isAdmin();
     }
 
+    public boolean isBurdenSite() {
+        return shift != null && shift.isBurdenSite();
+    }
+
     public boolean isRest() {
         return shift != null && shift.isRest();
     }
@@ -142,6 +198,93 @@ public class ShiftSlot {
         return getPeriodId() == 0;
     }
 
+    // ========== Eligibility ==========
+
+    /**
+     * Builds the eligibility BitSet and value range of this slot.
+     * Staff indexes must already be assigned (see ScheduleSolution.initializeMaps).
+     */
+    public void initializeEligibility(List<Staff> staffList) {
+        BitSet indexes = new BitSet(staffList.size());
+        List<Staff> eligible = new ArrayList<>();
+        for (Staff candidate : staffList) {
+            if (computeEligibility(candidate)) {
+                indexes.set(candidate.getIndex());
+                eligible.add(candidate);
+            }
+        }
+        this.eligibleStaffIndexes = indexes;
+        this.eligibleStaff = eligible;
+    }
+
+    /**
+     * Removes from the value range the eligible staff rejected by the filter
+     * (capacity reservation of SitePartitionedSolver). initializeEligibility restores the full range.
+     */
+    public void restrictEligibility(Predicate<Staff> allowed) {
+        if (eligibleStaff == null) {
+            return;
+        }
+        BitSet indexes = new BitSet(eligibleStaffIndexes.size());
+        List<Staff> eligible = new ArrayList<>();
+        for (Staff candidate : eligibleStaff) {
+            if (allowed.test(candidate)) {
+                indexes.set(candidate.getIndex());
+                eligible.add(candidate);
+            }
+        }
+        this.eligibleStaffIndexes = indexes;
+        this.eligibleStaff = eligible;
+    }
+
+    @ValueRangeProvider(id = "eligibleStaffRange")
+    public List<Staff> getEligibleStaff() {
+        return eligibleStaff;
+    }
+
+    /**
+     * Check if a staff member can be assigned to this slot - O(1) once the index is built.
+     */
+    public boolean isStaffEligible(Staff candidate) {
+        if (eligibleStaffIndexes != null && candidate.getIndex() >= 0) {
+            return eligibleStaffIndexes.get(candidate.getIndex());
+        }
+        return computeEligibility(candidate);
+    }
+
+    public int getEligibleStaffCount() {
+        return eligibleStaff != null ? eligibleStaff.size() : 0;
+    }
+
+    /**
+     * Eligibility rules (replace HS1, HS2, HS3):
+     * - Admin/Rest: availability only
+     * - Otherwise: skill + site + availability
+     * For periodId=0 (full day), staff must be available BOTH AM and PM.
+     */
+    private boolean computeEligibility(Staff candidate) {
+        if (shift == null) {
+            return true; // Pas de shift, accepter
+        }
+        if (!isAdmin() && !isRest()) {
+            if (!candidate.hasSkill(getSkillIndex())) {
+                return false;
+            }
+            if (!candidate.canWorkAtSite(getSiteIndex())) {
+                return false;
+            }
+        }
+        if (getDate() == null) {
+            return true;
+        }
+        int dayOfWeek = getDate().getDayOfWeek().getValue();
+        int periodId = getPeriodId();
+        if (periodId == 0) {
+            return candidate.isAvailable(dayOfWeek, 1) && candidate.isAvailable(dayOfWeek, 2);
+        }
+        return candidate.isAvailable(dayOfWeek, periodId);
+    }
+
     // ========== Assignment helpers ==========
 
     /**
@@ -158,7 +301,7 @@ public class ShiftSlot {
     public boolean hasValidSkill() {
         if (staff == null) return true; // Unassigned is OK
         if (isAdmin() || isRest()) return true; // No skill requirement
-        return staff.hasSkill(getSkillId());
+        return staff.hasSkill(getSkillIndex());
     }
 
     /**
@@ -168,8 +311,8 @@ public class ShiftSlot {
     public boolean canWorkAtSite() {
         if (staff == null) return true; // Unassigned is OK
         if (isAdmin() || isRest()) return true; // No site restriction
-        UUID siteId = getSiteId();
-        return siteId == null || staff.canWorkAtSite(siteId);
+        int siteIndex = getSiteIndex();
+        return siteIndex == KeyIndex.NO_INDEX || staff.canWorkAtSite(siteIndex);
     }
 
     /**
@@ -186,16 +329,32 @@ public class ShiftSlot {
      * Get skill preference for scoring (lower is better, 1 is best).
      */
     public int getSkillPreference() {
-        if (staff == null || getSkillId() == null) return 0;
-        return staff.getSkillPreference(getSkillId());
+        if (staff == null || getSkillIndex() == KeyIndex.NO_INDEX) return 0;
+        return staff.getSkillPreference(getSkillIndex());
+    }
+
+    /**
+     * SS1 reward of the assigned staff (affinity table of the shift, one array read).
+     */
+    public int getPhysicianReward() {
+        if (staff == null || shift == null) return 0;
+        return shift.getPhysicianReward(staff);
+    }
+
+    /**
+     * SS2 reward of the assigned staff (affinity table of the shift, one array read).
+     */
+    public int getSkillReward() {
+        if (staff == null || shift == null) return 0;
+        return shift.getSkillReward(staff);
     }
 
     /**
      * Get site priority for scoring (lower is better, 1 is best).
      */
     public int getSitePriority() {
-        if (staff == null || getSiteId() == null) return 0;
-        return staff.getSitePriority(getSiteId());
+        if (staff == null || getSiteIndex() == KeyIndex.NO_INDEX) return 0;
+        return staff.getSitePriority(getSiteIndex());
     }
 
     // ========== Getters and Setters ==========
@@ -206,6 +365,7 @@ public class ShiftSlot {
 
     public void setId(UUID id) {
         this.id = id;
+        this.idHash = id != null ? id.hashCode() : 0;
     }
 
     public Shift getShift() {
@@ -232,6 +392,14 @@ public class ShiftSlot {
         this.staff = staff;
     }
 
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
     public Integer getStaffWorkDayCount() {
         return staffWorkDayCount;
     }
@@ -262,11 +430,11 @@ public class ShiftSlot {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ShiftSlot that = (ShiftSlot) o;
-        return id.equals(that.id);
+        return idHash == that.idHash && id.equals(that.id);
     }
 
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return idHash;
     }
 }
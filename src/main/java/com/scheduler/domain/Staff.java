@@ -1,5 +1,9 @@
 package com.scheduler.domain;
 
+import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -12,6 +16,8 @@ import java.util.UUID;
  */
 public class Staff {
 
+    // Required to rebase moves onto the working solution of each move thread
+    @PlanningId
     private UUID id;
     private UUID userId;
     private String firstName;
@@ -35,11 +41,27 @@ public class Staff {
     private Set<StaffPhysician> preferredPhysicians = new HashSet<>();
 
     // ========== PERFORMANCE: O(1) lookup caches ==========
-    // These caches are initialized lazily on first access
-    private transient Map<UUID, Integer> skillPreferenceCache;
-    private transient Map<UUID, Integer> sitePriorityCache;
-    private transient Map<UUID, Integer> physicianPriorityCache;
-    private transient Set<UUID> preferredPhysicianIdsCache;
+    // Built once by freezeCaches() after loading, then read-only.
+    // THREAD-SAFETY: each cache is an unmodifiable snapshot published through a
+    // volatile field, so move threads (moveThreadCount) can read them concurrently.
+    // If a cache is still missing (staff built outside the repository), it is built
+    // on first access; a race only builds the same snapshot twice.
+    private transient volatile Map<UUID, Integer> skillPreferenceCache;
+    private transient volatile Map<UUID, Integer> sitePriorityCache;
+    private transient volatile Map<UUID, Integer> physicianPriorityCache;
+    private transient volatile Set<UUID> preferredPhysicianIdsCache;
+    // Bit (dayOfWeek * 4 + periodId) set when available, -1 until built
+    private transient volatile long availabilityMask = -1L;
+
+    // Same lookups by dense key (KeyIndex of sites / skills / physicians): array[index] = preference,
+    // ABSENT when not set. Built by freezeCaches(KeyIndex...), used by the solver hot paths.
+    private static final int ABSENT = -1;
+    private transient volatile int[] skillPreferenceByIndex;
+    private transient volatile int[] sitePriorityByIndex;
+    private transient volatile int[] physicianPriorityByIndex;
+
+    // Position in ScheduleSolution.staffList (0..N-1), used by the slot eligibility BitSets
+    private int index = -1;
 
     public Staff() {}
 
@@ -49,65 +71,185 @@ public class Staff {
         this.lastName = lastName;
     }
 
-    // ========== Initialize caches (lazy, called on first access) ==========
-    private void initializeSkillCache() {
-        if (skillPreferenceCache == null) {
-            skillPreferenceCache = new HashMap<>();
-            for (StaffSkill ss : skills) {
-                skillPreferenceCache.put(ss.getSkillId(), ss.getPreference());
-            }
+    // ========== Initialize caches ==========
+
+    /**
+     * Eagerly (re)builds all lookup caches as immutable snapshots.
+     * Must be called once skills, sites and physicians are loaded, before solving.
+     */
+    public void freezeCaches() {
+        skillPreferenceCache = buildSkillCache();
+        sitePriorityCache = buildSiteCache();
+        freezePhysicianCache();
+        availabilityMask = buildAvailabilityMask();
+    }
+
+    /**
+     * freezeCaches() + the dense key arrays. The indexes must cover every skill, site and
+     * physician of this staff (see ScheduleSolution.initializeMaps).
+     */
+    public void freezeCaches(KeyIndex skillIndex, KeyIndex siteIndex, KeyIndex physicianIndex) {
+        freezeCaches();
+        int[] skillArray = newKeyArray(skillIndex);
+        for (StaffSkill ss : skills) {
+            putKey(skillArray, skillIndex.indexOf(ss.getSkillId()), ss.getPreference());
+        }
+        int[] siteArray = newKeyArray(siteIndex);
+        for (StaffSite ss : sites) {
+            putKey(siteArray, siteIndex.indexOf(ss.getSiteId()), ss.getPriority());
+        }
+        int[] physicianArray = newKeyArray(physicianIndex);
+        for (StaffPhysician sp : preferredPhysicians) {
+            putKey(physicianArray, physicianIndex.indexOf(sp.getPhysicianId()), sp.getPriority());
+        }
+        skillPreferenceByIndex = skillArray;
+        sitePriorityByIndex = siteArray;
+        physicianPriorityByIndex = physicianArray;
+    }
+
+    private static int[] newKeyArray(KeyIndex keyIndex) {
+        int[] array = new int[keyIndex.size()];
+        Arrays.fill(array, ABSENT);
+        return array;
+    }
+
+    private static void putKey(int[] array, int index, int value) {
+        if (index >= 0) {
+            array[index] = value;
+        }
+    }
+
+    private static int keyValue(int[] array, int index) {
+        if (array == null) {
+            throw new IllegalStateException("Staff key arrays not built, call ScheduleSolution.initializeMaps() first");
+        }
+        return index >= 0 && index < array.length ? array[index] : ABSENT;
+    }
+
+    private long buildAvailabilityMask() {
+        long mask = 0L;
+        for (StaffAvailability a : availabilities) {
+            mask |= availabilityBit(a.getDayOfWeek(), a.getPeriodId());
+        }
+        return mask;
+    }
+
+    private static long availabilityBit(int dayOfWeek, int periodId) {
+        if (dayOfWeek < 1 || dayOfWeek > 7 || periodId < 0 || periodId > 3) {
+            return 0L;
+        }
+        return 1L << (dayOfWeek * 4 + periodId);
+    }
+
+    // Publishes the physician ids before the priority map, so a non-null map implies both are set
+    private Map<UUID, Integer> freezePhysicianCache() {
+        Map<UUID, Integer> cache = buildPhysicianCache();
+        preferredPhysicianIdsCache = Collections.unmodifiableSet(new HashSet<>(cache.keySet()));
+        physicianPriorityCache = cache;
+        return cache;
+    }
+
+    private Map<UUID, Integer> buildSkillCache() {
+        Map<UUID, Integer> cache = new HashMap<>();
+        for (StaffSkill ss : skills) {
+            cache.put(ss.getSkillId(), ss.getPreference());
+        }
+        return Collections.unmodifiableMap(cache);
+    }
+
+    private Map<UUID, Integer> buildSiteCache() {
+        Map<UUID, Integer> cache = new HashMap<>();
+        for (StaffSite ss : sites) {
+            cache.put(ss.getSiteId(), ss.getPriority());
+        }
+        return Collections.unmodifiableMap(cache);
+    }
+
+    private Map<UUID, Integer> buildPhysicianCache() {
+        Map<UUID, Integer> cache = new HashMap<>();
+        for (StaffPhysician sp : preferredPhysicians) {
+            cache.put(sp.getPhysicianId(), sp.getPriority());
+        }
+        return Collections.unmodifiableMap(cache);
+    }
+
+    private Map<UUID, Integer> skillCache() {
+        Map<UUID, Integer> cache = skillPreferenceCache;
+        if (cache == null) {
+            cache = buildSkillCache();
+            skillPreferenceCache = cache;
         }
+        return cache;
     }
 
-    private void initializeSiteCache() {
-        if (sitePriorityCache == null) {
-            sitePriorityCache = new HashMap<>();
-            for (StaffSite ss : sites) {
-                sitePriorityCache.put(ss.getSiteId(), ss.getPriority());
-            }
+    private Map<UUID, Integer> siteCache() {
+        Map<UUID, Integer> cache = sitePriorityCache;
+        if (cache == null) {
+            cache = buildSiteCache();
+            sitePriorityCache = cache;
         }
+        return cache;
     }
 
-    private void initializePhysicianCache() {
-        if (physicianPriorityCache == null) {
-            physicianPriorityCache = new HashMap<>();
-            preferredPhysicianIdsCache = new HashSet<>();
-            for (StaffPhysician sp : preferredPhysicians) {
-                physicianPriorityCache.put(sp.getPhysicianId(), sp.getPriority());
-                preferredPhysicianIdsCache.add(sp.getPhysicianId());
-            }
+    private Map<UUID, Integer> physicianCache() {
+        Map<UUID, Integer> cache = physicianPriorityCache;
+        if (cache == null) {
+            cache = freezePhysicianCache();
         }
+        return cache;
     }
 
     // Check if staff has a specific skill - O(1)
     public boolean hasSkill(UUID skillId) {
-        initializeSkillCache();
-        return skillPreferenceCache.containsKey(skillId);
+        return skillCache().containsKey(skillId);
     }
 
     // Get skill preference (1-4), or 0 if not found - O(1)
     public int getSkillPreference(UUID skillId) {
-        initializeSkillCache();
-        return skillPreferenceCache.getOrDefault(skillId, 0);
+        return skillCache().getOrDefault(skillId, 0);
     }
 
     // Check if staff can work at a specific site - O(1)
     public boolean canWorkAtSite(UUID siteId) {
-        initializeSiteCache();
-        return sitePriorityCache.containsKey(siteId);
+        return siteCache().containsKey(siteId);
     }
 
     // Get site priority (1-4), or 0 if not found - O(1)
     public int getSitePriority(UUID siteId) {
-        initializeSiteCache();
-        return sitePriorityCache.getOrDefault(siteId, 0);
+        return siteCache().getOrDefault(siteId, 0);
     }
 
-    // Check if staff is available on a specific day and period
-    // Note: Kept as stream since availabilities set is small (max 10 entries)
+    // Same lookups by dense key (Shift.getSkillIndex / getSiteIndex / getPhysicianIndexes) - array access
+
+    public boolean hasSkill(int skillIndex) {
+        return keyValue(skillPreferenceByIndex, skillIndex) != ABSENT;
+    }
+
+    public int getSkillPreference(int skillIndex) {
+        return Math.max(keyValue(skillPreferenceByIndex, skillIndex), 0);
+    }
+
+    public boolean canWorkAtSite(int siteIndex) {
+        return keyValue(sitePriorityByIndex, siteIndex) != ABSENT;
+    }
+
+    public int getSitePriority(int siteIndex) {
+        return Math.max(keyValue(sitePriorityByIndex, siteIndex), 0);
+    }
+
+    public int getPhysicianPriority(int physicianIndex) {
+        return Math.max(keyValue(physicianPriorityByIndex, physicianIndex), 0);
+    }
+
+    // Check if staff is available on a specific day and period - O(1) bitmask
     public boolean isAvailable(int dayOfWeek, int periodId) {
-        return availabilities.stream()
-            .anyMatch(a -> a.getDayOfWeek() == dayOfWeek && a.getPeriodId() == periodId);
+        long mask = availabilityMask;
+        if (mask == -1L) {
+            mask = buildAvailabilityMask();
+            availabilityMask = mask;
+        }
+        long bit = availabilityBit(dayOfWeek, periodId);
+        return bit != 0L && (mask & bit) != 0L;
     }
 
     // Check if staff has any preferred physicians
@@ -117,13 +259,12 @@ public class Staff {
 
     // Get physician preference priority (1-3), or 0 if not preferred - O(1)
     public int getPhysicianPriority(UUID physicianId) {
-        initializePhysicianCache();
-        return physicianPriorityCache.getOrDefault(physicianId, 0);
+        return physicianCache().getOrDefault(physicianId, 0);
     }
 
-    // Get all preferred physician IDs - cached, O(1) after first call
+    // Get all preferred physician IDs - cached, immutable
     public Set<UUID> getPreferredPhysicianIds() {
-        initializePhysicianCache();
+        physicianCache();
         return preferredPhysicianIdsCache;
     }
 
@@ -164,6 +305,9 @@ public class Staff {
     public Integer getDaysPerWeek() { return daysPerWeek; }
     public void setDaysPerWeek(Integer daysPerWeek) { this.daysPerWeek = daysPerWeek; }
 
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
 
@@ -0,0 +1,13 @@
+package com.scheduler.domain;
+
+/**
+ * Entité qui peut compter dans la charge de travail d'un staff (S-WORKLOAD) :
+ * ShiftSlot (jours sur un site pénible) et ClosingAssignment (responsabilités 1R / 2F).
+ *
+ * Permet un seul forEach(WorkloadItem.class) qui alimente le collector de charge
+ * (voir WorkloadCollector), au lieu d'un stream groupé par type d'entité puis concaténé.
+ */
+public interface WorkloadItem {
+
+    Staff getStaff();
+}
@@ -0,0 +1,312 @@
+package com.scheduler.persistence;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.scheduler.domain.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Offline snapshot of a ScheduleSolution (save/load without Supabase).
+ *
+ * Format: JSON, gzip-compressed when the file name ends with ".gz", with a header
+ * (format, version, period). Objects are written flat and linked by id
+ * (slot -> shift, assignment -> staff), so a loaded snapshot has the same object graph
+ * as SupabaseRepository.loadSolution: one Staff instance shared by all its slots.
+ * Current assignments are kept, so a solved schedule can be replayed or attached to a bug report.
+ *
+ * Bump FORMAT_VERSION on any incompatible change, older files are then rejected explicitly.
+ */
+public class SnapshotRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRepository.class);
+
+    public static final String FORMAT = "staff-scheduler-snapshot";
+    public static final int FORMAT_VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+
+    public SnapshotRepository() {
+        this.objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Snapshot content: the problem (with its current assignments) and the scheduling period.
+     */
+    public record Snapshot(LocalDate startDate, LocalDate endDate, ScheduleSolution solution) {
+    }
+
+    public void saveSolution(ScheduleSolution solution, LocalDate startDate, LocalDate endDate, File file) throws Exception {
+        long start = System.nanoTime();
+        try (OutputStream out = openOutput(file)) {
+            objectMapper.writeValue(out, toSnapshotFile(solution, startDate, endDate));
+        }
+        log.info("Snapshot saved to {} ({} KB, {} ms)", file, file.length() / 1024,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Snapshot loadSnapshot(File file) throws Exception {
+        long start = System.nanoTime();
+        SnapshotFile snapshotFile;
+        try (InputStream in = openInput(file)) {
+            snapshotFile = objectMapper.readValue(in, SnapshotFile.class);
+        }
+        if (!FORMAT.equals(snapshotFile.format())) {
+            throw new IllegalArgumentException("Not a staff scheduler snapshot: " + file);
+        }
+        if (snapshotFile.version() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + snapshotFile.version()
+                + " in " + file + " (expected " + FORMAT_VERSION + ")");
+        }
+        ScheduleSolution solution = toSolution(snapshotFile);
+        log.info("Snapshot loaded from {} ({} to {}, created {}, {} ms)", file, snapshotFile.startDate(),
+            snapshotFile.endDate(), snapshotFile.createdAt(), (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(snapshotFile.startDate(), snapshotFile.endDate(), solution);
+    }
+
+    public ScheduleSolution loadSolution(File file) throws Exception {
+        return loadSnapshot(file).solution();
+    }
+
+    private OutputStream openOutput(File file) throws Exception {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        return file.getName().endsWith(".gz") ? new GZIPOutputStream(out) : out;
+    }
+
+    /**
+     * Gzip is detected from the magic bytes, not the file name.
+     */
+    private InputStream openInput(File file) throws Exception {
+        BufferedInputStream in = new BufferedInputStream(new FileInputStream(file));
+        in.mark(2);
+        int magic = in.read() | (in.read() << 8);
+        in.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(in) : in;
+    }
+
+    // ========== Solution -> file ==========
+
+    private SnapshotFile toSnapshotFile(ScheduleSolution solution, LocalDate startDate, LocalDate endDate) {
+        List<LocationRecord> locations = new ArrayList<>();
+        for (Location loc : solution.getLocations()) {
+            locations.add(new LocationRecord(loc.getId(), loc.getSiteId(), loc.getSpecialtyId(), loc.getName(),
+                loc.getStaffingType(), loc.isHasClosing(), loc.getDistanceType()));
+        }
+
+        List<StaffRecord> staffList = new ArrayList<>();
+        for (Staff staff : solution.getStaffList()) {
+            List<PreferenceRecord> skills = new ArrayList<>();
+            staff.getSkills().forEach(s -> skills.add(new PreferenceRecord(s.getSkillId(), s.getPreference())));
+            List<PreferenceRecord> sites = new ArrayList<>();
+            staff.getSites().forEach(s -> sites.add(new PreferenceRecord(s.getSiteId(), s.getPriority())));
+            List<PreferenceRecord> physicians = new ArrayList<>();
+            staff.getPreferredPhysicians().forEach(p -> physicians.add(new PreferenceRecord(p.getPhysicianId(), p.getPriority())));
+            List<int[]> availabilities = new ArrayList<>();
+            staff.getAvailabilities().forEach(a -> availabilities.add(new int[] {a.getDayOfWeek(), a.getPeriodId()}));
+            staffList.add(new StaffRecord(staff.getId(), staff.getUserId(), staff.getFirstName(), staff.getLastName(),
+                staff.isHasFlexibleSchedule(), staff.getWorkPercentage(), staff.getAdminHalfDaysTarget(),
+                staff.getDaysPerWeek(), staff.isActive(), skills, sites, availabilities, physicians));
+        }
+
+        List<AbsenceRecord> absences = new ArrayList<>();
+        for (Absence absence : solution.getAbsences()) {
+            absences.add(new AbsenceRecord(absence.getId(), absence.getUserId(), absence.getDate(), absence.getPeriodId()));
+        }
+
+        List<ShiftRecord> shifts = new ArrayList<>();
+        for (Shift shift : solution.getShifts()) {
+            shifts.add(new ShiftRecord(shift.getId(), shift.getLocationId(), shift.getLocationName(),
+                shift.getSiteId(), shift.getSiteName(), shift.getDate(), shift.getPeriodId(),
+                shift.getSkillId(), shift.getSkillName(), shift.getQuantityNeeded(), shift.isHasClosing(),
+                shift.getNeedType(), shift.isAdmin(), shift.getClosingRole(),
+                shift.isNeeds1r(), shift.isNeeds2f(), shift.isNeeds3f(), shift.getSamePersonAllDay(),
+                new ArrayList<>(shift.getPhysicianIds()), shift.getPhysicianNames()));
+        }
+
+        List<SlotRecord> slots = new ArrayList<>();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            slots.add(new SlotRecord(slot.getId(), slot.getShift().getId(), slot.getSlotIndex(), staffId(slot.getStaff())));
+        }
+
+        List<ClosingRecord> closings = new ArrayList<>();
+        for (ClosingAssignment ca : solution.getClosingAssignments()) {
+            closings.add(new ClosingRecord(ca.getId(), ca.getLocationId(), ca.getLocationName(), ca.getDate(),
+                ca.getRole(), staffId(ca.getStaff())));
+        }
+
+        return new SnapshotFile(FORMAT, FORMAT_VERSION, startDate, endDate, Instant.now(),
+            locations, staffList, absences, shifts, slots, closings);
+    }
+
+    private static UUID staffId(Staff staff) {
+        return staff != null ? staff.getId() : null;
+    }
+
+    // ========== File -> solution ==========
+
+    private ScheduleSolution toSolution(SnapshotFile file) {
+        ScheduleSolution solution = new ScheduleSolution();
+
+        List<Location> locations = new ArrayList<>();
+        for (LocationRecord r : file.locations()) {
+            Location loc = new Location(r.id(), r.name());
+            loc.setSiteId(r.siteId());
+            loc.setSpecialtyId(r.specialtyId());
+            loc.setStaffingType(r.staffingType());
+            loc.setHasClosing(r.hasClosing());
+            loc.setDistanceType(r.distanceType());
+            locations.add(loc);
+        }
+        solution.setLocations(locations);
+
+        List<Staff> staffList = new ArrayList<>();
+        Map<UUID, Staff> staffById = new HashMap<>();
+        for (StaffRecord r : file.staff()) {
+            Staff staff = new Staff(r.id(), r.firstName(), r.lastName());
+            staff.setUserId(r.userId());
+            staff.setHasFlexibleSchedule(r.hasFlexibleSchedule());
+            staff.setWorkPercentage(r.workPercentage());
+            staff.setAdminHalfDaysTarget(r.adminHalfDaysTarget());
+            staff.setDaysPerWeek(r.daysPerWeek());
+            staff.setActive(r.active());
+            r.skills().forEach(p -> staff.getSkills().add(new StaffSkill(r.id(), p.id(), p.priority())));
+            r.sites().forEach(p -> staff.getSites().add(new StaffSite(r.id(), p.id(), p.priority())));
+            r.physicians().forEach(p -> staff.getPreferredPhysicians().add(new StaffPhysician(r.id(), p.id(), p.priority())));
+            r.availabilities().forEach(a -> staff.getAvailabilities().add(new StaffAvailability(r.id(), a[0], a[1])));
+            staffList.add(staff);
+            staffById.put(staff.getId(), staff);
+        }
+        solution.setStaffList(staffList);
+
+        List<Absence> absences = new ArrayList<>();
+        for (AbsenceRecord r : file.absences()) {
+            Absence absence = new Absence(r.userId(), r.date(), r.periodId());
+            absence.setId(r.id());
+            absences.add(absence);
+        }
+        solution.setAbsences(absences);
+
+        List<Shift> shifts = new ArrayList<>();
+        Map<UUID, Shift> shiftById = new HashMap<>();
+        for (ShiftRecord r : file.shifts()) {
+            Shift shift = new Shift(r.locationId(), r.date(), r.periodId(), r.skillId(), r.quantityNeeded());
+            shift.setId(r.id());
+            shift.setLocationName(r.locationName());
+            shift.setSiteId(r.siteId());
+            shift.setSiteName(r.siteName());
+            shift.setSkillName(r.skillName());
+            shift.setHasClosing(r.hasClosing());
+            shift.setNeedType(r.needType());
+            shift.setAdmin(r.admin());
+            shift.setClosingRole(r.closingRole());
+            shift.setNeeds1r(r.needs1r());
+            shift.setNeeds2f(r.needs2f());
+            shift.setNeeds3f(r.needs3f());
+            shift.setSamePersonAllDay(r.samePersonAllDay());
+            shift.setPhysicianIds(new HashSet<>(r.physicianIds()));
+            shift.setPhysicianNames(r.physicianNames());
+            shifts.add(shift);
+            shiftById.put(shift.getId(), shift);
+        }
+        solution.setShifts(shifts);
+
+        List<ShiftSlot> slots = new ArrayList<>();
+        for (SlotRecord r : file.slots()) {
+            Shift shift = shiftById.get(r.shiftId());
+            if (shift == null) {
+                throw new IllegalStateException("Snapshot slot " + r.id() + " references unknown shift " + r.shiftId());
+            }
+            ShiftSlot slot = new ShiftSlot(shift, r.slotIndex());
+            slot.setId(r.id());
+            slot.setStaff(lookupStaff(staffById, r.staffId()));
+            slots.add(slot);
+        }
+        solution.setShiftSlots(slots);
+
+        List<ClosingAssignment> closings = new ArrayList<>();
+        for (ClosingRecord r : file.closingAssignments()) {
+            ClosingAssignment ca = new ClosingAssignment(r.locationId(), r.locationName(), r.date(), r.role());
+            ca.setId(r.id());
+            ca.setStaff(lookupStaff(staffById, r.staffId()));
+            closings.add(ca);
+        }
+        solution.setClosingAssignments(closings);
+
+        solution.initializeMaps();
+        return solution;
+    }
+
+    private static Staff lookupStaff(Map<UUID, Staff> staffById, UUID staffId) {
+        if (staffId == null) {
+            return null;
+        }
+        Staff staff = staffById.get(staffId);
+        if (staff == null) {
+            throw new IllegalStateException("Snapshot assignment references unknown staff " + staffId);
+        }
+        return staff;
+    }
+
+    // ========== File records ==========
+
+    record SnapshotFile(String format, int version, LocalDate startDate, LocalDate endDate, Instant createdAt,
+                        List<LocationRecord> locations, List<StaffRecord> staff, List<AbsenceRecord> absences,
+                        List<ShiftRecord> shifts, List<SlotRecord> slots, List<ClosingRecord> closingAssignments) {
+    }
+
+    record LocationRecord(UUID id, UUID siteId, UUID specialtyId, String name, String staffingType,
+                          boolean hasClosing, String distanceType) {
+    }
+
+    // id = skill, site or physician id; priority = preference level
+    record PreferenceRecord(UUID id, int priority) {
+    }
+
+    // availabilities = [dayOfWeek, periodId] pairs
+    record StaffRecord(UUID id, UUID userId, String firstName, String lastName, boolean hasFlexibleSchedule,
+                       Double workPercentage, Integer adminHalfDaysTarget, Integer daysPerWeek, boolean active,
+                       List<PreferenceRecord> skills, List<PreferenceRecord> sites, List<int[]> availabilities,
+                       List<PreferenceRecord> physicians) {
+    }
+
+    record AbsenceRecord(UUID id, UUID userId, LocalDate date, Integer periodId) {
+    }
+
+    record ShiftRecord(UUID id, UUID locationId, String locationName, UUID siteId, String siteName,
+                       LocalDate date, int periodId, UUID skillId, String skillName, int quantityNeeded,
+                       boolean hasClosing, String needType, boolean admin, String closingRole,
+                       boolean needs1r, boolean needs2f, boolean needs3f, Boolean samePersonAllDay,
+                       List<UUID> physicianIds, String physicianNames) {
+    }
+
+    // staffId = current assignment, null if unassigned
+    record SlotRecord(UUID id, UUID shiftId, int slotIndex, UUID staffId) {
+    }
+
+    record ClosingRecord(UUID id, UUID locationId, String locationName, LocalDate date, ClosingRole role, UUID staffId) {
+    }
+}
@@ -8,7 +8,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.UUID;
 
 /**
  * Generates an HTML report visualizing the staff schedule.
@@ -18,7 +17,6 @@ public class HtmlReportGenerator {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE dd/MM", Locale.FRENCH);
     private static final DateTimeFormatter SHORT_DATE = DateTimeFormatter.ofPattern("dd/MM");
-    private static final UUID PORRENTRUY_SITE_ID = UUID.fromString("627a8ef9-02f9-42b7-8438-ed230dddb87c");
 
     /**
      * Generate an HTML report from the solved schedule.
@@ -138,12 +136,12 @@ public class HtmlReportGenerator {
 
         sb.append("</div>\n");
 
-        // Row 2: Porrentruy & Sites distribution
+        // Row 2: Burden sites (Porrentruy) & Sites distribution
         sb.append("<div class=\"charts-row\">\n");
 
-        // Porrentruy chart
+        // Burden sites chart (Porrentruy by default)
         sb.append("<div class=\"chart-card\">\n");
-        sb.append("<h3>🏔️ Jours à Porrentruy</h3>\n");
+        sb.append("<h3>🏔️ Jours à ").append(escapeHtml(burdenSiteLabel(solution))).append("</h3>\n");
         sb.append("<canvas id=\"porrentruyChart\"></canvas>\n");
         sb.append("</div>\n");
 
@@ -195,7 +193,7 @@ public class HtmlReportGenerator {
                 stats.merge("consultation", 1, Integer::sum);
             }
 
-            if (PORRENTRUY_SITE_ID.equals(shift.getSiteId())) {
+            if (shift.isBurdenSite()) {
                 String key = slot.getStaff().getId() + "|" + slot.getDate();
                 if (!porrentruyDays.contains(key)) {
                     porrentruyDays.add(key);
@@ -219,7 +217,7 @@ public class HtmlReportGenerator {
         sb.append("<th>Consultation</th>");
         sb.append("<th>Chirurgie</th>");
         sb.append("<th>Admin</th>");
-        sb.append("<th>Porrentruy</th>");
+        sb.append("<th>").append(escapeHtml(burdenSiteLabel(solution))).append("</th>");
         sb.append("<th>Closing</th>");
         sb.append("<th>Total</th>");
         sb.append("</tr></thead>\n<tbody>\n");
@@ -285,10 +283,10 @@ public class HtmlReportGenerator {
                 s -> s.getStaff().getFullName(),
                 Collectors.counting()));
 
-        // Porrentruy data (count DAYS, not half-days)
+        // Burden site data, Porrentruy by default (count DAYS, not half-days)
         Map<String, Set<LocalDate>> porrentruyDaysByStaff = new LinkedHashMap<>();
         for (ShiftSlot slot : solution.getShiftSlots()) {
-            if (slot.getStaff() != null && slot.getShift() != null && PORRENTRUY_SITE_ID.equals(slot.getShift().getSiteId())) {
+            if (slot.getStaff() != null && slot.getShift() != null && slot.getShift().isBurdenSite()) {
                 String name = slot.getStaff().getFullName();
                 porrentruyDaysByStaff.computeIfAbsent(name, k -> new HashSet<>()).add(slot.getDate());
             }
@@ -348,7 +346,7 @@ public class HtmlReportGenerator {
         sb.append("  data: {\n");
         sb.append("    labels: [").append(porrentruySorted.stream().map(e -> "'" + escapeJs(e.getKey()) + "'").collect(Collectors.joining(","))).append("],\n");
         sb.append("    datasets: [{\n");
-        sb.append("      label: 'Jours à Porrentruy',\n");
+        sb.append("      label: 'Jours à ").append(escapeJs(burdenSiteLabel(solution))).append("',\n");
         sb.append("      data: [").append(porrentruySorted.stream().map(e -> String.valueOf(e.getValue())).collect(Collectors.joining(","))).append("],\n");
         sb.append("      backgroundColor: '#66bb6a'\n");
         sb.append("    }]\n");
@@ -987,6 +985,20 @@ public class HtmlReportGenerator {
             """;
     }
 
+    /**
+     * Names of the burden sites flagged on the shifts (ScheduleSolution.burdenSites), for the titles.
+     */
+    private static String burdenSiteLabel(ScheduleSolution solution) {
+        String label = solution.getShifts().stream()
+            .filter(Shift::isBurdenSite)
+            .map(Shift::getSiteName)
+            .filter(Objects::nonNull)
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(", "));
+        return label.isEmpty() ? "sites pénibles" : label;
+    }
+
     private static String truncate(String str, int maxLength) {
         if (str == null) return "";
         return str.length() <= maxLength ? str : str.substring(0, maxLength - 1) + "…";
@@ -0,0 +1,142 @@
+package com.scheduler.report;
+
+import ai.timefold.solver.core.api.score.ScoreExplanation;
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatch;
+import ai.timefold.solver.core.api.score.constraint.ConstraintMatchTotal;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.Staff;
+import com.scheduler.domain.WorkloadItem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Analyse du score à la demande (explain), séparée du solve.
+ *
+ * Le solve ne suit jamais les constraint matches : seul explain() construit une session avec
+ * justifications (matches, faits indictés), ce qui coûte mémoire et temps sur un gros planning.
+ * Cette classe n'est donc appelée que si un rapport est demandé (--score-analysis=SUMMARY),
+ * et le rapport peut être limité aux N contraintes les plus coûteuses ou à quelques staff.
+ *
+ * Les constraint streams sont toujours utilisés ici, quel que soit le calculateur du solve :
+ * le calcul incrémental ne fournit pas de matches.
+ */
+public class ScoreAnalysisReport {
+
+    /**
+     * SUMMARY: score initial + analysis after solving (default). OFF: no analysis at all (production).
+     */
+    public enum Mode {
+        SUMMARY,
+        OFF
+    }
+
+    private final SolutionManager<ScheduleSolution, HardMediumSoftScore> solutionManager;
+
+    /**
+     * @param solverConfig a constraint streams configuration (App.buildSolverConfig with CONSTRAINT_STREAMS)
+     */
+    public ScoreAnalysisReport(SolverConfig solverConfig) {
+        this.solutionManager = SolutionManager.create(SolverFactory.<ScheduleSolution>create(solverConfig));
+    }
+
+    /**
+     * Score of the problem before solving, without constraint matches.
+     */
+    public HardMediumSoftScore updateScore(ScheduleSolution problem) {
+        return solutionManager.update(problem);
+    }
+
+    /**
+     * Explains the score of the solution.
+     *
+     * @param topConstraints number of constraints to list, worst score first (0 = Timefold summary, all constraints)
+     * @param staffKeys staff names or UUIDs (id or user id) whose matches are listed separately (empty = none)
+     * @return the report lines
+     */
+    public List<String> explain(ScheduleSolution solution, int topConstraints, List<String> staffKeys) {
+        ScoreExplanation<ScheduleSolution, HardMediumSoftScore> explanation = solutionManager.explain(solution);
+        List<String> lines = new ArrayList<>();
+        if (topConstraints <= 0) {
+            lines.add(explanation.getSummary());
+        } else {
+            lines.add("Score: " + explanation.getScore() + ", " + topConstraints + " worst constraints:");
+            explanation.getConstraintMatchTotalMap().values().stream()
+                .filter(matchTotal -> matchTotal.getConstraintMatchCount() > 0)
+                .sorted(Comparator.comparing(ConstraintMatchTotal<HardMediumSoftScore>::getScore))
+                .limit(topConstraints)
+                .forEach(matchTotal -> lines.add(String.format("  %s  %s (%d matches)", matchTotal.getScore(),
+                    matchTotal.getConstraintRef().constraintName(), matchTotal.getConstraintMatchCount())));
+        }
+        for (Staff staff : findStaff(solution, staffKeys)) {
+            lines.addAll(explainStaff(explanation, staff));
+        }
+        return lines;
+    }
+
+    /**
+     * Constraint matches involving the staff: matches indicting the staff itself or one of its
+     * slots / closings (uni streams indict the entity, not the staff).
+     */
+    private static List<String> explainStaff(ScoreExplanation<ScheduleSolution, HardMediumSoftScore> explanation,
+            Staff staff) {
+        Map<String, HardMediumSoftScore> scoreByConstraint = new LinkedHashMap<>();
+        Map<String, Integer> countByConstraint = new LinkedHashMap<>();
+        HardMediumSoftScore total = HardMediumSoftScore.ZERO;
+        for (ConstraintMatchTotal<HardMediumSoftScore> matchTotal : explanation.getConstraintMatchTotalMap().values()) {
+            String constraintName = matchTotal.getConstraintRef().constraintName();
+            for (ConstraintMatch<HardMediumSoftScore> match : matchTotal.getConstraintMatchSet()) {
+                if (involves(match, staff)) {
+                    scoreByConstraint.merge(constraintName, match.getScore(), HardMediumSoftScore::add);
+                    countByConstraint.merge(constraintName, 1, Integer::sum);
+                    total = total.add(match.getScore());
+                }
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("Staff " + staff.getFullName() + ": " + total);
+        scoreByConstraint.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .forEach(entry -> lines.add(String.format("  %s  %s (%d matches)", entry.getValue(), entry.getKey(),
+                countByConstraint.get(entry.getKey()))));
+        return lines;
+    }
+
+    private static boolean involves(ConstraintMatch<HardMediumSoftScore> match, Staff staff) {
+        for (Object indicted : match.getIndictedObjectList()) {
+            if (indicted == staff || (indicted instanceof WorkloadItem item && item.getStaff() == staff)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Staff matching one of the keys: full name (case insensitive), id or user id.
+     */
+    private static List<Staff> findStaff(ScheduleSolution solution, List<String> staffKeys) {
+        List<Staff> found = new ArrayList<>();
+        for (String key : staffKeys) {
+            String normalizedKey = key.trim().toLowerCase(Locale.ROOT);
+            Staff match = solution.getStaffList().stream()
+                .filter(staff -> normalizedKey.equals(String.valueOf(staff.getId()))
+                    || normalizedKey.equals(String.valueOf(staff.getUserId()))
+                    || (staff.getFullName() != null && normalizedKey.equals(staff.getFullName().trim().toLowerCase(Locale.ROOT))))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown staff for score analysis: " + key));
+            if (!found.contains(match)) {
+                found.add(match);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,41 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.ChangeMove;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.Staff;
+
+/**
+ * Filtre les moves pour ClosingAssignment.
+ *
+ * ClosingAssignment.staff tire dans staffRange (tous les staff) : sans filtre, le CH et la
+ * recherche locale évaluent chaque staff pour chaque rôle, alors que seuls ceux qui travaillent
+ * déjà à la location ce jour-là peuvent respecter H-CLOSING-FULLDAY-AM / PM.
+ *
+ * Accepte un staff s'il tient un slot AM ou PM de la location à cette date : lookup dans les
+ * quelques slots de ClosingAssignment.getLocationSlots (index fixe, staff lus en direct).
+ * Si personne n'y travaille encore, tous les staff sont acceptés : le CH doit pouvoir
+ * initialiser le rôle (la variable n'accepte pas null).
+ *
+ * Amener à la location un staff qui n'y travaille pas est le rôle de ClosingMoveIteratorFactory.
+ */
+public class ClosingAssignmentChangeMoveFilter implements SelectionFilter<ScheduleSolution, Move<ScheduleSolution>> {
+
+    @Override
+    public boolean accept(ScoreDirector<ScheduleSolution> scoreDirector, Move<ScheduleSolution> move) {
+        if (!(move instanceof ChangeMove<?> changeMove)) {
+            return true; // Pas un ChangeMove, accepter
+        }
+        if (!(changeMove.getEntity() instanceof ClosingAssignment ca)) {
+            return true; // Pas une ClosingAssignment, accepter
+        }
+        if (!(changeMove.getToPlanningValue() instanceof Staff staff)) {
+            return true; // Pas un Staff, accepter
+        }
+        return ca.isStaffWorkingAtLocation(staff) || !ca.hasStaffWorkingAtLocation();
+    }
+}
@@ -0,0 +1,216 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.domain.variable.VariableListener;
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.KeyIndex;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shadow variable listener that maintains, for each ClosingAssignment, the half-days
+ * (AM / PM) its staff works at the closing location on the closing date.
+ *
+ * This turns H-CLOSING-FULLDAY-AM / PM into a plain filter on ClosingAssignment
+ * instead of two ifNotExists(ShiftSlot) streams.
+ *
+ * PERFORMANCE: the listener keeps (staff, location, day) -> slot count per period
+ * and (location, day) -> closing assignments. A ShiftSlot staff change only updates
+ * the counts of its old and new staff and refreshes the closings (1R/2F/3F) of the
+ * slot's location and day. A ClosingAssignment staff change only refreshes that closing.
+ *
+ * Sources: ShiftSlot.staff and ClosingAssignment.staff, hence the Object entity type.
+ * One instance exists per ScoreDirector, so the index is never shared between threads.
+ */
+public class ClosingFullDayListener implements VariableListener<ScheduleSolution, Object> {
+
+    // (staff, location, day) -> number of slots assigned, by periodId (1 = AM, 2 = PM)
+    private final Map<StaffLocationDay, int[]> slotCountByStaffLocationDay = new HashMap<>();
+
+    // Indexed slots -> key they were counted under (retract uses it even after the staff changed)
+    private final Map<ShiftSlot, StaffLocationDay> indexedSlots = new HashMap<>();
+
+    // (location, day) -> closing assignments of that location and day
+    private final Map<LocationDay, List<ClosingAssignment>> closingsByLocationDay = new HashMap<>();
+
+    // Location days whose slot counts changed, their closings are refreshed in the after* event
+    private final Set<LocationDay> dirtyLocationDays = new LinkedHashSet<>();
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<ScheduleSolution> scoreDirector) {
+        close();
+        ScheduleSolution solution = scoreDirector.getWorkingSolution();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            insert(slot);
+        }
+        for (ClosingAssignment ca : solution.getClosingAssignments()) {
+            addClosing(ca);
+        }
+        // The working solution may arrive already assigned (snapshot, merged partitions, rolling window):
+        // align every shadow value with the index
+        for (ClosingAssignment ca : solution.getClosingAssignments()) {
+            refreshClosing(scoreDirector, ca);
+        }
+        dirtyLocationDays.clear();
+    }
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<ScheduleSolution> scoreDirector, Object entity) {
+        // No-op
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<ScheduleSolution> scoreDirector, Object entity) {
+        if (entity instanceof ShiftSlot slot) {
+            insert(slot);
+            refreshDirtyLocationDays(scoreDirector);
+        } else if (entity instanceof ClosingAssignment ca) {
+            addClosing(ca);
+            refreshClosing(scoreDirector, ca);
+        }
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<ScheduleSolution> scoreDirector, Object entity) {
+        if (entity instanceof ShiftSlot slot) {
+            retract(slot);
+        }
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<ScheduleSolution> scoreDirector, Object entity) {
+        if (entity instanceof ShiftSlot slot) {
+            insert(slot);
+            refreshDirtyLocationDays(scoreDirector);
+        } else if (entity instanceof ClosingAssignment ca) {
+            refreshClosing(scoreDirector, ca);
+        }
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<ScheduleSolution> scoreDirector, Object entity) {
+        if (entity instanceof ShiftSlot slot) {
+            retract(slot);
+        } else if (entity instanceof ClosingAssignment ca) {
+            List<ClosingAssignment> closings = closingsByLocationDay.get(LocationDay.of(ca));
+            if (closings != null) {
+                closings.remove(ca);
+            }
+        }
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<ScheduleSolution> scoreDirector, Object entity) {
+        refreshDirtyLocationDays(scoreDirector);
+    }
+
+    @Override
+    public void close() {
+        slotCountByStaffLocationDay.clear();
+        indexedSlots.clear();
+        closingsByLocationDay.clear();
+        dirtyLocationDays.clear();
+    }
+
+    // ========== Index maintenance ==========
+
+    private void insert(ShiftSlot slot) {
+        Staff staff = slot.getStaff();
+        int periodId = slot.getPeriodId();
+        if (staff == null || (periodId != 1 && periodId != 2) || slot.getLocationIndex() == KeyIndex.NO_INDEX) {
+            return; // Only AM / PM slots at a known location count for a closing
+        }
+        StaffLocationDay key = new StaffLocationDay(staff, slot.getLocationIndex(), slot.getDayIndex());
+        if (indexedSlots.putIfAbsent(slot, key) != null) {
+            return; // Already indexed (e.g. afterEntityAdded after resetWorkingSolution)
+        }
+        slotCountByStaffLocationDay.computeIfAbsent(key, k -> new int[3])[periodId]++;
+        dirtyLocationDays.add(LocationDay.of(slot));
+    }
+
+    private void retract(ShiftSlot slot) {
+        StaffLocationDay key = indexedSlots.remove(slot);
+        if (key == null) {
+            return; // Not indexed
+        }
+        int[] slotCount = slotCountByStaffLocationDay.get(key);
+        slotCount[slot.getPeriodId()]--;
+        if (slotCount[1] == 0 && slotCount[2] == 0) {
+            slotCountByStaffLocationDay.remove(key);
+        }
+        dirtyLocationDays.add(LocationDay.of(slot));
+    }
+
+    private void addClosing(ClosingAssignment ca) {
+        List<ClosingAssignment> closings = closingsByLocationDay.computeIfAbsent(LocationDay.of(ca), k -> new ArrayList<>(3));
+        if (!closings.contains(ca)) {
+            closings.add(ca);
+        }
+    }
+
+    // ========== Shadow variable updates ==========
+
+    private void refreshDirtyLocationDays(ScoreDirector<ScheduleSolution> scoreDirector) {
+        for (LocationDay locationDay : dirtyLocationDays) {
+            refreshLocationDay(scoreDirector, locationDay);
+        }
+        dirtyLocationDays.clear();
+    }
+
+    private void refreshLocationDay(ScoreDirector<ScheduleSolution> scoreDirector, LocationDay locationDay) {
+        List<ClosingAssignment> closings = closingsByLocationDay.get(locationDay);
+        if (closings == null) {
+            return;
+        }
+        for (ClosingAssignment ca : closings) {
+            refreshClosing(scoreDirector, ca);
+        }
+    }
+
+    /**
+     * Updates the workedHalfDays shadow variable of this closing from the slot counts.
+     */
+    private void refreshClosing(ScoreDirector<ScheduleSolution> scoreDirector, ClosingAssignment ca) {
+        Integer newValue = null;
+        if (ca.getStaff() != null) {
+            int[] slotCount = slotCountByStaffLocationDay.get(
+                new StaffLocationDay(ca.getStaff(), ca.getLocationIndex(), ca.getDayIndex()));
+            int workedHalfDays = 0;
+            if (slotCount != null && slotCount[1] > 0) {
+                workedHalfDays |= ClosingAssignment.WORKED_AM;
+            }
+            if (slotCount != null && slotCount[2] > 0) {
+                workedHalfDays |= ClosingAssignment.WORKED_PM;
+            }
+            newValue = workedHalfDays;
+        }
+        if (!Objects.equals(newValue, ca.getWorkedHalfDays())) {
+            scoreDirector.beforeVariableChanged(ca, "workedHalfDays");
+            ca.setWorkedHalfDays(newValue);
+            scoreDirector.afterVariableChanged(ca, "workedHalfDays");
+        }
+    }
+
+    private record StaffLocationDay(Staff staff, int locationIndex, int dayIndex) {
+    }
+
+    private record LocationDay(int locationIndex, int dayIndex) {
+
+        static LocationDay of(ShiftSlot slot) {
+            return new LocationDay(slot.getLocationIndex(), slot.getDayIndex());
+        }
+
+        static LocationDay of(ClosingAssignment ca) {
+            return new LocationDay(ca.getLocationIndex(), ca.getDayIndex());
+        }
+    }
+}
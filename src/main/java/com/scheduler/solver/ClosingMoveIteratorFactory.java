@@ -0,0 +1,346 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import ai.timefold.solver.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import ai.timefold.solver.core.impl.heuristic.move.CompositeMove;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.ChangeMove;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ClosingRole;
+import com.scheduler.domain.KeyIndex;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Move composé pour les fermetures : le rôle de closing passe à un staff ET ce staff prend
+ * un slot AM et un slot PM à la location ce jour-là, en un seul move atomique.
+ *
+ * Un ChangeMove sur ClosingAssignment.staff seul n'est faisable que si le nouveau staff
+ * travaille déjà le AM et le PM à la location : sinon H-CLOSING-FULLDAY-AM / PM coûtent
+ * 10000 hard et la Late Acceptance refuse presque tous ces moves.
+ *
+ * Pour chaque demi-journée que le staff ne travaille pas encore à la location :
+ * - il prend un slot de la location éligible pour lui (l'occupant actuel est déplacé)
+ * - son ancien slot de la même demi-journée (autre location) passe à l'occupant déplacé
+ *   s'il y est éligible, sinon il est libéré : pas de double booking créé
+ * Les échecs (aucun slot éligible, 1R = 2F, ancien slot pinné) sont retirés au tirage suivant.
+ *
+ * Ordre original : pour chaque closing, chaque slot AM de la location et chaque staff éligible
+ * à ce slot, le slot PM étant le premier slot PM éligible de la location (ordre de la solution).
+ * Un staff qui travaille déjà le AM à la location ne donne qu'un move par closing.
+ *
+ * Le move est un CompositeMove de ChangeMoves Timefold (undo et rebase fournis), chaque
+ * entité n'y apparaît qu'une fois. Les index par (location, jour, période) et (jour, période)
+ * sont construits une fois par phase : les slots et les closings ne changent ni de jour ni de
+ * location. Une instance par solver : le move selector n'est utilisé que par le thread du solver.
+ */
+public class ClosingMoveIteratorFactory implements MoveIteratorFactory<ScheduleSolution, Move<ScheduleSolution>> {
+
+    // Tirages avant d'abandonner pour ce step (aucune closing réassignable)
+    private static final int MAX_ATTEMPTS = 100;
+
+    private GenuineVariableDescriptor<ScheduleSolution> slotStaffVariable;
+    private GenuineVariableDescriptor<ScheduleSolution> closingStaffVariable;
+    private List<ClosingAssignment> closings = List.of();
+    // (location, jour, période) -> slots non pinnés de cette location
+    private Map<LocationDayPeriod, List<ShiftSlot>> slotsByLocationDayPeriod = Map.of();
+    // (jour, période) -> tous les slots, pour retrouver l'ancien slot du staff (pinnés compris)
+    private Map<DayPeriod, List<ShiftSlot>> slotsByDayPeriod = Map.of();
+    // (location, jour) -> closings, pour 1R != 2F
+    private Map<LocationDay, List<ClosingAssignment>> closingsByLocationDay = Map.of();
+
+    @Override
+    public void phaseStarted(ScoreDirector<ScheduleSolution> scoreDirector) {
+        SolutionDescriptor<ScheduleSolution> solutionDescriptor =
+            ((InnerScoreDirector<ScheduleSolution, ?>) scoreDirector).getSolutionDescriptor();
+        slotStaffVariable = solutionDescriptor
+            .findEntityDescriptorOrFail(ShiftSlot.class).getGenuineVariableDescriptor("staff");
+        closingStaffVariable = solutionDescriptor
+            .findEntityDescriptorOrFail(ClosingAssignment.class).getGenuineVariableDescriptor("staff");
+
+        ScheduleSolution solution = scoreDirector.getWorkingSolution();
+        slotsByLocationDayPeriod = new HashMap<>();
+        slotsByDayPeriod = new HashMap<>();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            int periodId = slot.getPeriodId();
+            if (periodId != 1 && periodId != 2) {
+                continue; // Seuls les slots AM / PM comptent pour une fermeture
+            }
+            slotsByDayPeriod.computeIfAbsent(new DayPeriod(slot.getDayIndex(), periodId), k -> new ArrayList<>())
+                .add(slot);
+            if (!slot.isPinned() && slot.getLocationIndex() != KeyIndex.NO_INDEX) {
+                slotsByLocationDayPeriod.computeIfAbsent(
+                    new LocationDayPeriod(slot.getLocationIndex(), slot.getDayIndex(), periodId),
+                    k -> new ArrayList<>()).add(slot);
+            }
+        }
+        closings = new ArrayList<>();
+        closingsByLocationDay = new HashMap<>();
+        for (ClosingAssignment ca : solution.getClosingAssignments()) {
+            closingsByLocationDay.computeIfAbsent(
+                new LocationDay(ca.getLocationIndex(), ca.getDayIndex()), k -> new ArrayList<>(3)).add(ca);
+            if (!ca.isPinned()) {
+                closings.add(ca);
+            }
+        }
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<ScheduleSolution> scoreDirector) {
+        slotStaffVariable = null;
+        closingStaffVariable = null;
+        closings = List.of();
+        slotsByLocationDayPeriod = Map.of();
+        slotsByDayPeriod = Map.of();
+        closingsByLocationDay = Map.of();
+    }
+
+    @Override
+    public long getSize(ScoreDirector<ScheduleSolution> scoreDirector) {
+        return closings.size();
+    }
+
+    @Override
+    public Iterator<Move<ScheduleSolution>> createOriginalMoveIterator(ScoreDirector<ScheduleSolution> scoreDirector) {
+        return new OriginalClosingMoveIterator();
+    }
+
+    @Override
+    public Iterator<Move<ScheduleSolution>> createRandomMoveIterator(ScoreDirector<ScheduleSolution> scoreDirector,
+            Random workingRandom) {
+        return new RandomClosingMoveIterator(workingRandom);
+    }
+
+    private class RandomClosingMoveIterator implements Iterator<Move<ScheduleSolution>> {
+
+        private final Random workingRandom;
+        private Move<ScheduleSolution> upcomingMove;
+
+        RandomClosingMoveIterator(Random workingRandom) {
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (upcomingMove == null) {
+                upcomingMove = createMove();
+            }
+            return upcomingMove != null;
+        }
+
+        @Override
+        public Move<ScheduleSolution> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move<ScheduleSolution> move = upcomingMove;
+            upcomingMove = null;
+            return move;
+        }
+
+        /**
+         * Null si aucun move trouvé en MAX_ATTEMPTS tirages (hasNext() = false : l'union ne tire
+         * plus ce selector pour ce step).
+         */
+        private Move<ScheduleSolution> createMove() {
+            if (closings.isEmpty()) {
+                return null;
+            }
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                Move<ScheduleSolution> move = createMove(closings.get(workingRandom.nextInt(closings.size())));
+                if (move != null) {
+                    return move;
+                }
+            }
+            return null;
+        }
+
+        private Move<ScheduleSolution> createMove(ClosingAssignment ca) {
+            List<ShiftSlot> amSlots = locationSlots(ca, 1);
+            if (amSlots == null || locationSlots(ca, 2) == null) {
+                return null; // Pas de AM + PM à cette location ce jour-là
+            }
+
+            // Candidat : un staff éligible à un slot AM de la location
+            ShiftSlot amTarget = amSlots.get(workingRandom.nextInt(amSlots.size()));
+            List<Staff> candidates = amTarget.getEligibleStaff();
+            if (candidates == null || candidates.isEmpty()) {
+                return null;
+            }
+            Staff staff = candidates.get(workingRandom.nextInt(candidates.size()));
+            return buildMove(ca, amTarget, staff, workingRandom);
+        }
+    }
+
+    private class OriginalClosingMoveIterator implements Iterator<Move<ScheduleSolution>> {
+
+        private int closingIndex;
+        // Moves de la closing courante, générés à la demande closing par closing
+        private final List<Move<ScheduleSolution>> pendingMoves = new ArrayList<>();
+        private int pendingIndex;
+
+        @Override
+        public boolean hasNext() {
+            while (pendingIndex >= pendingMoves.size() && closingIndex < closings.size()) {
+                pendingMoves.clear();
+                pendingIndex = 0;
+                addMoves(closings.get(closingIndex++));
+            }
+            return pendingIndex < pendingMoves.size();
+        }
+
+        @Override
+        public Move<ScheduleSolution> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pendingMoves.get(pendingIndex++);
+        }
+
+        private void addMoves(ClosingAssignment ca) {
+            List<ShiftSlot> amSlots = locationSlots(ca, 1);
+            if (amSlots == null || locationSlots(ca, 2) == null) {
+                return;
+            }
+            // Staff déjà au AM de la location : leur move ne dépend pas du slot AM cible
+            Set<Staff> alreadyAtLocation = new HashSet<>();
+            for (ShiftSlot amTarget : amSlots) {
+                for (Staff staff : amTarget.getEligibleStaff()) {
+                    if (worksAtLocation(ca, staff, 1) && !alreadyAtLocation.add(staff)) {
+                        continue;
+                    }
+                    Move<ScheduleSolution> move = buildMove(ca, amTarget, staff, null);
+                    if (move != null) {
+                        pendingMoves.add(move);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * La closing passe au staff, qui prend amTarget (s'il ne travaille pas déjà le AM à la
+     * location) et un slot PM éligible de la location. Le slot PM est cherché à partir d'une
+     * position aléatoire, ou du début si random est null. Null si le move est impossible.
+     */
+    private Move<ScheduleSolution> buildMove(ClosingAssignment ca, ShiftSlot amTarget, Staff staff, Random random) {
+        if (staff == ca.getStaff() || holdsOtherClosing(ca, staff)) {
+            return null;
+        }
+        List<Move<ScheduleSolution>> moves = new ArrayList<>(5);
+        moves.add(new ChangeMove<>(closingStaffVariable, ca, staff));
+        if (!addHalfDayMoves(moves, ca, amTarget, staff, 1, random)
+                || !addHalfDayMoves(moves, ca, null, staff, 2, random)) {
+            return null;
+        }
+        return CompositeMove.buildMove(moves);
+    }
+
+    /**
+     * Rien si le staff travaille déjà cette demi-journée à la location. Sinon il prend target
+     * (ou un slot éligible de la location si null) et son ancien slot de la même demi-journée
+     * passe à l'occupant déplacé (s'il y est éligible) ou est libéré.
+     * False si aucun slot éligible ou si l'ancien slot est pinné.
+     */
+    private boolean addHalfDayMoves(List<Move<ScheduleSolution>> moves, ClosingAssignment ca, ShiftSlot target,
+            Staff staff, int periodId, Random random) {
+        ShiftSlot previousSlot = findSlot(slotsByDayPeriod.get(new DayPeriod(ca.getDayIndex(), periodId)), staff);
+        if (previousSlot != null && previousSlot.getLocationIndex() == ca.getLocationIndex()) {
+            return true; // Déjà à la location
+        }
+        if (previousSlot != null && previousSlot.isPinned()) {
+            return false;
+        }
+        if (target == null) {
+            target = pickEligible(locationSlots(ca, periodId), staff, random);
+            if (target == null) {
+                return false;
+            }
+        }
+        Staff displaced = target.getStaff();
+        moves.add(new ChangeMove<>(slotStaffVariable, target, staff));
+        if (previousSlot != null) {
+            Staff replacement = displaced != null && previousSlot.isStaffEligible(displaced) ? displaced : null;
+            moves.add(new ChangeMove<>(slotStaffVariable, previousSlot, replacement));
+        }
+        return true;
+    }
+
+    /**
+     * Slots non pinnés de la location de la closing, ce jour-là, pour une période (null si aucun).
+     */
+    private List<ShiftSlot> locationSlots(ClosingAssignment ca, int periodId) {
+        return slotsByLocationDayPeriod.get(new LocationDayPeriod(ca.getLocationIndex(), ca.getDayIndex(), periodId));
+    }
+
+    private boolean worksAtLocation(ClosingAssignment ca, Staff staff, int periodId) {
+        ShiftSlot slot = findSlot(slotsByDayPeriod.get(new DayPeriod(ca.getDayIndex(), periodId)), staff);
+        return slot != null && slot.getLocationIndex() == ca.getLocationIndex();
+    }
+
+    /**
+     * Un slot éligible pour le staff, en partant d'une position aléatoire (du début si random est null).
+     */
+    private static ShiftSlot pickEligible(List<ShiftSlot> slots, Staff staff, Random random) {
+        int offset = random != null ? random.nextInt(slots.size()) : 0;
+        for (int i = 0; i < slots.size(); i++) {
+            ShiftSlot slot = slots.get((offset + i) % slots.size());
+            if (slot.isStaffEligible(staff)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * H-CLOSING : le staff tient déjà le rôle 1R / 2F complémentaire à cette location ce jour-là.
+     */
+    private boolean holdsOtherClosing(ClosingAssignment ca, Staff staff) {
+        if (ca.getRole() != ClosingRole.ROLE_1R && ca.getRole() != ClosingRole.ROLE_2F) {
+            return false;
+        }
+        for (ClosingAssignment other : closingsByLocationDay.get(new LocationDay(ca.getLocationIndex(), ca.getDayIndex()))) {
+            if (other != ca && other.getStaff() == staff
+                    && (other.getRole() == ClosingRole.ROLE_1R || other.getRole() == ClosingRole.ROLE_2F)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ShiftSlot findSlot(List<ShiftSlot> slots, Staff staff) {
+        if (slots == null) {
+            return null;
+        }
+        for (ShiftSlot slot : slots) {
+            if (slot.getStaff() == staff) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    private record LocationDayPeriod(int locationIndex, int dayIndex, int periodId) {
+    }
+
+    private record LocationDay(int locationIndex, int dayIndex) {
+    }
+
+    private record DayPeriod(int dayIndex, int periodId) {
+    }
+}
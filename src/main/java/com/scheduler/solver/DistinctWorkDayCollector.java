@@ -0,0 +1,89 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
+
+import com.scheduler.domain.Shift;
+import com.scheduler.domain.ShiftSlot;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Nombre de jours distincts travaillés dans une semaine (M-FLEX-1, S-FLEX-2).
+ *
+ * Remplace toSet(ShiftSlot::getDate) dans un groupBy (staff, semaine) : au lieu d'un HashSet de
+ * LocalDate, le container compte les slots par jour de la semaine dans un int[] et garde un masque
+ * des jours non vides. Ajouter / retirer un slot = une mise à jour du tableau et du masque, sans
+ * allocation (les Runnable d'annulation sont créés une fois par container). Le résultat est
+ * bitCount(masque), un Integer 0..8 toujours pris dans le cache.
+ *
+ * Les slots sans date comptent pour un jour, comme la date null dans l'ancien toSet.
+ */
+public final class DistinctWorkDayCollector implements UniConstraintCollector<ShiftSlot, DistinctWorkDayCollector.WorkDays, Integer> {
+
+    // Une seule instance : les streams qui l'utilisent partagent le même nœud groupBy
+    static final DistinctWorkDayCollector INSTANCE = new DistinctWorkDayCollector();
+
+    private static final int UNDATED = 7; // Lundi=0 .. dimanche=6, puis les slots sans date
+
+    private DistinctWorkDayCollector() {
+    }
+
+    /**
+     * Position du jour dans sa semaine (lundi = 0). L'epoch day 0 (1970-01-01) est un jeudi.
+     */
+    static int dayOfWeekIndex(ShiftSlot slot) {
+        int dayIndex = slot.getDayIndex();
+        return dayIndex == Shift.NO_DAY ? UNDATED : Math.floorMod(dayIndex + 3, 7);
+    }
+
+    @Override
+    public Supplier<WorkDays> supplier() {
+        return WorkDays::new;
+    }
+
+    @Override
+    public BiFunction<WorkDays, ShiftSlot, Runnable> accumulator() {
+        return (workDays, slot) -> workDays.add(dayOfWeekIndex(slot));
+    }
+
+    @Override
+    public Function<WorkDays, Integer> finisher() {
+        return WorkDays::count;
+    }
+
+    /**
+     * Slots par jour de la semaine + masque des jours travaillés.
+     */
+    static final class WorkDays {
+
+        private final int[] slotCount = new int[UNDATED + 1];
+        private final Runnable[] removers = new Runnable[UNDATED + 1];
+        private int dayMask;
+
+        WorkDays() {
+            for (int day = 0; day <= UNDATED; day++) {
+                int d = day;
+                removers[day] = () -> remove(d);
+            }
+        }
+
+        Runnable add(int day) {
+            if (slotCount[day]++ == 0) {
+                dayMask |= 1 << day;
+            }
+            return removers[day];
+        }
+
+        private void remove(int day) {
+            if (--slotCount[day] == 0) {
+                dayMask &= ~(1 << day);
+            }
+        }
+
+        Integer count() {
+            return Integer.bitCount(dayMask);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.PillarChangeMove;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.PillarSwapMove;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Pillar moves sur les journées complètes : le AM + PM d'un staff à une date.
+ *
+ * M-FLEX-1, S-FLEX-2 (isWorkingFullDay) et H-CLOSING-FULLDAY récompensent les journées
+ * complètes : un ChangeMove sur un seul slot casse la journée et est pénalisé, la recherche
+ * locale ne déplace donc presque jamais une journée entière. Ici un seul move :
+ * - PillarChangeMove : la journée (AM + PM) passe à un autre staff éligible aux deux slots et
+ *   libre ce jour-là (aucun slot AM ou PM, pinnés compris) : pas de double booking créé
+ * - PillarSwapMove : deux staff échangent leurs journées du même jour (chacun garde son nombre
+ *   de jours travaillés, seuls les postes changent)
+ *
+ * Les pillars (staff, date) ne sont pas construits par un PillarSelector : celui-ci regroupe
+ * tous les slots par staff à chaque step (O(slots)), ce qui divisait la vitesse de calcul
+ * par 3.7 sur 40 staff x 14 jours. L'index des slots AM / PM par jour est construit une fois
+ * par phase (les slots ne changent pas de jour) ; une journée se retrouve en tirant un slot AM
+ * assigné puis en cherchant le PM du même staff parmi les slots PM du jour.
+ *
+ * L'éligibilité est vérifiée dans les BitSets des slots (O(1)). Les slots pinnés sont exclus.
+ * Une instance par solver : le move selector n'est utilisé que par le thread du solver.
+ *
+ * Ordre original : pour chaque slot AM (ordre de la solution) qui commence une journée complète,
+ * les PillarChangeMoves vers chaque staff éligible aux deux slots et libre ce jour-là, puis les
+ * PillarSwapMoves avec les journées complètes des slots AM suivants du même jour (chaque paire
+ * une seule fois).
+ *
+ * Hors union par défaut (App --full-day-moves) : au poids 0.05, le benchmark de l'ajout ne
+ * montrait aucun gain par rapport à la recherche sans ces moves.
+ */
+public class FullDayMoveIteratorFactory implements MoveIteratorFactory<ScheduleSolution, Move<ScheduleSolution>> {
+
+    // Tirages avant d'abandonner pour ce step (aucune journée complète déplaçable)
+    private static final int MAX_ATTEMPTS = 100;
+
+    private GenuineVariableDescriptor<ScheduleSolution> staffVariable;
+    private List<ShiftSlot> amSlots = List.of();
+    private Map<Integer, List<ShiftSlot>> amSlotsByDay = Map.of();
+    private Map<Integer, List<ShiftSlot>> pmSlotsByDay = Map.of();
+    // jour -> tous les slots AM / PM (pinnés compris), pour vérifier que le staff cible est libre
+    private Map<Integer, List<ShiftSlot>> halfDaySlotsByDay = Map.of();
+
+    @Override
+    public void phaseStarted(ScoreDirector<ScheduleSolution> scoreDirector) {
+        staffVariable = ((InnerScoreDirector<ScheduleSolution, ?>) scoreDirector).getSolutionDescriptor()
+            .findEntityDescriptorOrFail(ShiftSlot.class).getGenuineVariableDescriptor("staff");
+        amSlots = new ArrayList<>();
+        amSlotsByDay = new HashMap<>();
+        pmSlotsByDay = new HashMap<>();
+        halfDaySlotsByDay = new HashMap<>();
+        for (ShiftSlot slot : scoreDirector.getWorkingSolution().getShiftSlots()) {
+            if (slot.getPeriodId() == 1 || slot.getPeriodId() == 2) {
+                halfDaySlotsByDay.computeIfAbsent(slot.getDayIndex(), k -> new ArrayList<>()).add(slot);
+            }
+            if (slot.isPinned()) {
+                continue;
+            }
+            if (slot.getPeriodId() == 1) {
+                amSlots.add(slot);
+                amSlotsByDay.computeIfAbsent(slot.getDayIndex(), k -> new ArrayList<>()).add(slot);
+            } else if (slot.getPeriodId() == 2) {
+                pmSlotsByDay.computeIfAbsent(slot.getDayIndex(), k -> new ArrayList<>()).add(slot);
+            }
+        }
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<ScheduleSolution> scoreDirector) {
+        staffVariable = null;
+        amSlots = List.of();
+        amSlotsByDay = Map.of();
+        pmSlotsByDay = Map.of();
+        halfDaySlotsByDay = Map.of();
+    }
+
+    @Override
+    public long getSize(ScoreDirector<ScheduleSolution> scoreDirector) {
+        return amSlots.size();
+    }
+
+    @Override
+    public Iterator<Move<ScheduleSolution>> createOriginalMoveIterator(ScoreDirector<ScheduleSolution> scoreDirector) {
+        return new OriginalFullDayMoveIterator();
+    }
+
+    @Override
+    public Iterator<Move<ScheduleSolution>> createRandomMoveIterator(ScoreDirector<ScheduleSolution> scoreDirector,
+            Random workingRandom) {
+        return new RandomFullDayMoveIterator(workingRandom);
+    }
+
+    private class RandomFullDayMoveIterator implements Iterator<Move<ScheduleSolution>> {
+
+        private final Random workingRandom;
+        private Move<ScheduleSolution> upcomingMove;
+
+        RandomFullDayMoveIterator(Random workingRandom) {
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (upcomingMove == null) {
+                upcomingMove = createMove();
+            }
+            return upcomingMove != null;
+        }
+
+        @Override
+        public Move<ScheduleSolution> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move<ScheduleSolution> move = upcomingMove;
+            upcomingMove = null;
+            return move;
+        }
+
+        /**
+         * Moitié PillarChangeMove, moitié PillarSwapMove. Null si aucun move trouvé en MAX_ATTEMPTS tirages
+         * (hasNext() = false : l'union ne tire plus ce selector pour ce step).
+         */
+        private Move<ScheduleSolution> createMove() {
+            if (amSlots.isEmpty()) {
+                return null;
+            }
+            boolean swap = workingRandom.nextBoolean();
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                List<Object> fullDay = findFullDay(amSlots.get(workingRandom.nextInt(amSlots.size())));
+                if (fullDay == null) {
+                    continue;
+                }
+                Move<ScheduleSolution> move = swap ? createSwapMove(fullDay) : createChangeMove(fullDay);
+                if (move != null) {
+                    return move;
+                }
+            }
+            return null;
+        }
+
+        private Move<ScheduleSolution> createChangeMove(List<Object> fullDay) {
+            ShiftSlot am = (ShiftSlot) fullDay.get(0);
+            ShiftSlot pm = (ShiftSlot) fullDay.get(1);
+            List<Staff> candidates = am.getEligibleStaff();
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            Staff toStaff = candidates.get(workingRandom.nextInt(candidates.size()));
+            if (toStaff == am.getStaff() || !pm.isStaffEligible(toStaff) || !isFree(toStaff, am.getDayIndex())) {
+                return null;
+            }
+            return new PillarChangeMove<>(fullDay, staffVariable, toStaff);
+        }
+
+        private Move<ScheduleSolution> createSwapMove(List<Object> leftDay) {
+            List<ShiftSlot> sameDayAmSlots = amSlotsByDay.get(((ShiftSlot) leftDay.get(0)).getDayIndex());
+            List<Object> rightDay = findFullDay(sameDayAmSlots.get(workingRandom.nextInt(sameDayAmSlots.size())));
+            if (rightDay == null) {
+                return null;
+            }
+            Staff leftStaff = ((ShiftSlot) leftDay.get(0)).getStaff();
+            Staff rightStaff = ((ShiftSlot) rightDay.get(0)).getStaff();
+            if (leftStaff == rightStaff
+                    || !isEligible(leftDay, rightStaff)
+                    || !isEligible(rightDay, leftStaff)) {
+                return null;
+            }
+            return new PillarSwapMove<>(List.of(staffVariable), leftDay, rightDay);
+        }
+
+    }
+
+    private class OriginalFullDayMoveIterator implements Iterator<Move<ScheduleSolution>> {
+
+        private int amIndex;
+        // Moves de la journée complète courante, générés à la demande slot AM par slot AM
+        private final List<Move<ScheduleSolution>> pendingMoves = new ArrayList<>();
+        private int pendingIndex;
+
+        @Override
+        public boolean hasNext() {
+            while (pendingIndex >= pendingMoves.size() && amIndex < amSlots.size()) {
+                pendingMoves.clear();
+                pendingIndex = 0;
+                addMoves(amSlots.get(amIndex++));
+            }
+            return pendingIndex < pendingMoves.size();
+        }
+
+        @Override
+        public Move<ScheduleSolution> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pendingMoves.get(pendingIndex++);
+        }
+
+        private void addMoves(ShiftSlot am) {
+            List<Object> fullDay = findFullDay(am);
+            if (fullDay == null) {
+                return;
+            }
+            ShiftSlot pm = (ShiftSlot) fullDay.get(1);
+            Staff staff = am.getStaff();
+            for (Staff toStaff : am.getEligibleStaff()) {
+                if (toStaff != staff && pm.isStaffEligible(toStaff) && isFree(toStaff, am.getDayIndex())) {
+                    pendingMoves.add(new PillarChangeMove<>(fullDay, staffVariable, toStaff));
+                }
+            }
+            // Swaps avec les slots AM suivants du même jour seulement : chaque paire une fois
+            boolean after = false;
+            for (ShiftSlot rightAm : amSlotsByDay.get(am.getDayIndex())) {
+                if (rightAm == am) {
+                    after = true;
+                    continue;
+                }
+                if (!after) {
+                    continue;
+                }
+                List<Object> rightDay = findFullDay(rightAm);
+                if (rightDay != null && rightAm.getStaff() != staff
+                        && isEligible(fullDay, rightAm.getStaff()) && isEligible(rightDay, staff)) {
+                    pendingMoves.add(new PillarSwapMove<>(List.of(staffVariable), fullDay, rightDay));
+                }
+            }
+        }
+    }
+
+    /**
+     * Le slot AM et le slot PM de son staff ce jour-là, ou null (AM non assigné, pas de PM).
+     */
+    private List<Object> findFullDay(ShiftSlot am) {
+        Staff staff = am.getStaff();
+        if (staff == null) {
+            return null;
+        }
+        List<ShiftSlot> pmSlots = pmSlotsByDay.get(am.getDayIndex());
+        if (pmSlots == null) {
+            return null;
+        }
+        for (ShiftSlot pm : pmSlots) {
+            if (pm.getStaff() == staff) {
+                return List.of(am, pm);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Le staff ne tient aucun slot AM ou PM ce jour-là.
+     */
+    private boolean isFree(Staff staff, int dayIndex) {
+        for (ShiftSlot slot : halfDaySlotsByDay.getOrDefault(dayIndex, List.of())) {
+            if (slot.getStaff() == staff) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEligible(List<Object> fullDay, Staff staff) {
+        for (Object slot : fullDay) {
+            if (!((ShiftSlot) slot).isStaffEligible(staff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -7,7 +7,13 @@ import com.scheduler.domain.ShiftSlot;
 import com.scheduler.domain.Staff;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Shadow variable listener that calculates whether a staff member
@@ -15,9 +21,43 @@ import java.util.Objects;
  *
  * This enables efficient constraint checking for flexible staff
  * who must work either full days or not at all.
+ *
+ * PERFORMANCE: the listener owns a (staff, date) -> {AM slots, PM slots}
+ * bucket index. A staff change only recomputes the bucket of the old staff
+ * and the bucket of the new staff for the slot's date, instead of scanning
+ * every ShiftSlot of the working solution.
+ *
+ * One instance exists per ScoreDirector, so the index is never shared
+ * between threads.
  */
 public class FullDayWorkListener implements VariableListener<ScheduleSolution, ShiftSlot> {
 
+    // staff -> date -> slots of that staff on that date
+    private final Map<Staff, Map<LocalDate, DayBucket>> bucketsByStaffDate = new HashMap<>();
+
+    // Buckets that lost a slot in a before* event and must be refreshed in the after* event
+    private final List<DayBucket> dirtyBuckets = new ArrayList<>();
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<ScheduleSolution> scoreDirector) {
+        bucketsByStaffDate.clear();
+        dirtyBuckets.clear();
+        List<DayBucket> buckets = new ArrayList<>();
+        for (ShiftSlot slot : scoreDirector.getWorkingSolution().getShiftSlots()) {
+            DayBucket bucket = insert(slot);
+            if (bucket == null) {
+                setWorkingFullDay(scoreDirector, slot, null);
+            } else {
+                buckets.add(bucket);
+            }
+        }
+        // The working solution may arrive already assigned (snapshot, merged partitions):
+        // align every shadow value with the index
+        for (DayBucket bucket : buckets) {
+            refreshBucket(scoreDirector, bucket);
+        }
+    }
+
     @Override
     public void beforeEntityAdded(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
         // No-op
@@ -25,63 +65,159 @@ public class FullDayWorkListener implements VariableListener<ScheduleSolution, S
 
     @Override
     public void afterEntityAdded(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        updateFullDayWork(scoreDirector, slot.getStaff(), slot.getDate());
+        refresh(scoreDirector, slot, insert(slot));
     }
 
     @Override
     public void beforeVariableChanged(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        // No-op
+        retract(slot);
     }
 
     @Override
     public void afterVariableChanged(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        updateFullDayWork(scoreDirector, slot.getStaff(), slot.getDate());
+        refresh(scoreDirector, slot, insert(slot));
     }
 
     @Override
     public void beforeEntityRemoved(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        // No-op
+        retract(slot);
     }
 
     @Override
     public void afterEntityRemoved(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        updateFullDayWork(scoreDirector, slot.getStaff(), slot.getDate());
+        refreshDirtyBuckets(scoreDirector);
+    }
+
+    @Override
+    public void close() {
+        bucketsByStaffDate.clear();
+        dirtyBuckets.clear();
     }
 
+    // ========== Index maintenance ==========
+
     /**
-     * Updates the isWorkingFullDay shadow variable for all slots of this staff on this date.
+     * Adds the slot to the bucket of its current staff/date.
+     * Returns the bucket, or null if the slot is unassigned or has no date.
      */
-    private void updateFullDayWork(ScoreDirector<ScheduleSolution> scoreDirector, Staff staff, LocalDate date) {
+    private DayBucket insert(ShiftSlot slot) {
+        Staff staff = slot.getStaff();
+        LocalDate date = slot.getDate();
         if (staff == null || date == null) {
+            return null;
+        }
+        DayBucket bucket = bucketsByStaffDate
+            .computeIfAbsent(staff, s -> new HashMap<>())
+            .computeIfAbsent(date, d -> new DayBucket());
+        bucket.add(slot);
+        return bucket;
+    }
+
+    private void retract(ShiftSlot slot) {
+        Staff staff = slot.getStaff();
+        LocalDate date = slot.getDate();
+        if (staff == null || date == null) {
+            return;
+        }
+        Map<LocalDate, DayBucket> bucketsByDate = bucketsByStaffDate.get(staff);
+        if (bucketsByDate == null) {
             return;
         }
+        DayBucket bucket = bucketsByDate.get(date);
+        if (bucket == null || !bucket.remove(slot)) {
+            return; // Not indexed
+        }
+        if (bucket.isEmpty()) {
+            bucketsByDate.remove(date);
+            if (bucketsByDate.isEmpty()) {
+                bucketsByStaffDate.remove(staff);
+            }
+        } else {
+            dirtyBuckets.add(bucket);
+        }
+    }
 
-        ScheduleSolution solution = scoreDirector.getWorkingSolution();
+    // ========== Shadow variable updates ==========
 
-        // Check if staff works both AM and PM on this date
-        boolean hasAM = false;
-        boolean hasPM = false;
-        for (ShiftSlot slot : solution.getShiftSlots()) {
-            if (staff.equals(slot.getStaff()) && date.equals(slot.getDate())) {
-                if (slot.getPeriodId() == 1) {
-                    hasAM = true;
-                }
-                if (slot.getPeriodId() == 2) {
-                    hasPM = true;
-                }
-            }
+    /**
+     * Refreshes the buckets that lost a slot and the bucket that received this slot.
+     * An unassigned slot gets its flag cleared.
+     */
+    private void refresh(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot, DayBucket bucket) {
+        refreshDirtyBuckets(scoreDirector);
+        if (bucket == null) {
+            setWorkingFullDay(scoreDirector, slot, null);
+        } else {
+            refreshBucket(scoreDirector, bucket);
+        }
+    }
+
+    private void refreshDirtyBuckets(ScoreDirector<ScheduleSolution> scoreDirector) {
+        for (DayBucket bucket : dirtyBuckets) {
+            refreshBucket(scoreDirector, bucket);
         }
-        Boolean newValue = hasAM && hasPM;
+        dirtyBuckets.clear();
+    }
 
-        // Update all slots for this staff/date
-        for (ShiftSlot slot : solution.getShiftSlots()) {
-            if (staff.equals(slot.getStaff()) && date.equals(slot.getDate())) {
-                if (!Objects.equals(newValue, slot.getIsWorkingFullDay())) {
-                    scoreDirector.beforeVariableChanged(slot, "isWorkingFullDay");
-                    slot.setIsWorkingFullDay(newValue);
-                    scoreDirector.afterVariableChanged(slot, "isWorkingFullDay");
-                }
+    /**
+     * Updates the isWorkingFullDay shadow variable for all slots of this staff on this date.
+     */
+    private void refreshBucket(ScoreDirector<ScheduleSolution> scoreDirector, DayBucket bucket) {
+        Boolean newValue = bucket.isFullDay();
+        for (ShiftSlot slot : bucket.amSlots) {
+            setWorkingFullDay(scoreDirector, slot, newValue);
+        }
+        for (ShiftSlot slot : bucket.pmSlots) {
+            setWorkingFullDay(scoreDirector, slot, newValue);
+        }
+        for (ShiftSlot slot : bucket.otherSlots) {
+            setWorkingFullDay(scoreDirector, slot, newValue);
+        }
+    }
+
+    private void setWorkingFullDay(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot, Boolean newValue) {
+        if (!Objects.equals(newValue, slot.getIsWorkingFullDay())) {
+            scoreDirector.beforeVariableChanged(slot, "isWorkingFullDay");
+            slot.setIsWorkingFullDay(newValue);
+            scoreDirector.afterVariableChanged(slot, "isWorkingFullDay");
+        }
+    }
+
+    /**
+     * Slots of one staff member on one date, split by period.
+     * periodId=0 (full day) slots are kept so their flag stays up to date,
+     * but they don't count as AM or PM.
+     */
+    private static final class DayBucket {
+
+        private final Set<ShiftSlot> amSlots = new HashSet<>();
+        private final Set<ShiftSlot> pmSlots = new HashSet<>();
+        private final Set<ShiftSlot> otherSlots = new HashSet<>();
+
+        void add(ShiftSlot slot) {
+            slotsOfPeriod(slot.getPeriodId()).add(slot);
+        }
+
+        boolean remove(ShiftSlot slot) {
+            return slotsOfPeriod(slot.getPeriodId()).remove(slot);
+        }
+
+        boolean isEmpty() {
+            return amSlots.isEmpty() && pmSlots.isEmpty() && otherSlots.isEmpty();
+        }
+
+        boolean isFullDay() {
+            return !amSlots.isEmpty() && !pmSlots.isEmpty();
+        }
+
+        private Set<ShiftSlot> slotsOfPeriod(int periodId) {
+            if (periodId == 1) {
+                return amSlots;
+            }
+            if (periodId == 2) {
+                return pmSlots;
             }
+            return otherSlots;
         }
     }
 }
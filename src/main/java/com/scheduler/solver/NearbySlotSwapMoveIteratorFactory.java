@@ -0,0 +1,245 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.SwapMove;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * SwapMoves entre ShiftSlots "proches" : un slot d'origine au hasard, puis un slot tiré parmi
+ * ses NEARBY_SIZE plus proches voisins (ShiftSlotNearbyDistanceMeter), les plus proches étant
+ * les plus probables (distribution linéaire décroissante).
+ *
+ * Équivalent de la nearby selection de Timefold, réservée à l'édition Enterprise : le swap
+ * aléatoire uniforme tire surtout des paires de slots sur des demi-journées différentes,
+ * qui décalent le planning des deux staff et n'améliorent presque jamais le score.
+ *
+ * Les voisins d'un slot sont calculés à la première utilisation puis gardés pour la phase
+ * (les slots ne changent ni de demi-journée, ni de site, ni de compétence). Les slots sont
+ * regroupés par demi-journée (ShiftSlotNearbyDistanceMeter.halfDayIndex, la même échelle que
+ * la distance) : les voisins sont pris demi-journée par demi-journée en s'éloignant de
+ * l'origine, jusqu'à en avoir NEARBY_SIZE, puis triés par distance. Les slots pinnés sont
+ * exclus ; l'éligibilité est vérifiée comme dans ShiftSlotSwapMoveFilter.
+ * Une instance par solver : le move selector n'est utilisé que par le thread du solver.
+ *
+ * Ordre original : chaque slot (ordre de la solution) avec chacun de ses voisins, du plus proche
+ * au plus loin, en ne gardant que les swaps éligibles. Une paire apparaît dans les deux sens
+ * quand chaque slot est dans les voisins de l'autre.
+ */
+public class NearbySlotSwapMoveIteratorFactory implements MoveIteratorFactory<ScheduleSolution, Move<ScheduleSolution>> {
+
+    // Voisins gardés par slot d'origine
+    private static final int NEARBY_SIZE = 40;
+    // Tirages avant d'abandonner pour ce step
+    private static final int MAX_ATTEMPTS = 100;
+
+    private final ShiftSlotNearbyDistanceMeter distanceMeter = new ShiftSlotNearbyDistanceMeter();
+
+    private GenuineVariableDescriptor<ScheduleSolution> staffVariable;
+    private List<ShiftSlot> slots = List.of();
+    private int[] halfDays = new int[0];               // demi-journées distinctes (halfDayIndex), triées
+    private List<List<ShiftSlot>> slotsByHalfDay = List.of(); // même ordre que halfDays
+    private ShiftSlot[][] nearbySlots = new ShiftSlot[0][];   // par position dans slots, calculé à la demande
+
+    @Override
+    public void phaseStarted(ScoreDirector<ScheduleSolution> scoreDirector) {
+        staffVariable = ((InnerScoreDirector<ScheduleSolution, ?>) scoreDirector).getSolutionDescriptor()
+            .findEntityDescriptorOrFail(ShiftSlot.class).getGenuineVariableDescriptor("staff");
+        slots = new ArrayList<>();
+        TreeMap<Integer, List<ShiftSlot>> byHalfDay = new TreeMap<>();
+        for (ShiftSlot slot : scoreDirector.getWorkingSolution().getShiftSlots()) {
+            if (!slot.isPinned()) {
+                slots.add(slot);
+                byHalfDay.computeIfAbsent(ShiftSlotNearbyDistanceMeter.halfDayIndex(slot), k -> new ArrayList<>())
+                    .add(slot);
+            }
+        }
+        halfDays = new int[byHalfDay.size()];
+        slotsByHalfDay = new ArrayList<>(byHalfDay.size());
+        int i = 0;
+        for (Map.Entry<Integer, List<ShiftSlot>> entry : byHalfDay.entrySet()) {
+            halfDays[i++] = entry.getKey();
+            slotsByHalfDay.add(entry.getValue());
+        }
+        nearbySlots = new ShiftSlot[slots.size()][];
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<ScheduleSolution> scoreDirector) {
+        staffVariable = null;
+        slots = List.of();
+        halfDays = new int[0];
+        slotsByHalfDay = List.of();
+        nearbySlots = new ShiftSlot[0][];
+    }
+
+    @Override
+    public long getSize(ScoreDirector<ScheduleSolution> scoreDirector) {
+        return (long) slots.size() * Math.min(NEARBY_SIZE, Math.max(slots.size() - 1, 0));
+    }
+
+    @Override
+    public Iterator<Move<ScheduleSolution>> createOriginalMoveIterator(ScoreDirector<ScheduleSolution> scoreDirector) {
+        return new OriginalNearbySwapMoveIterator();
+    }
+
+    @Override
+    public Iterator<Move<ScheduleSolution>> createRandomMoveIterator(ScoreDirector<ScheduleSolution> scoreDirector,
+            Random workingRandom) {
+        return new RandomNearbySwapMoveIterator(workingRandom);
+    }
+
+    /**
+     * Voisins du slot à la position originIndex dans slots, calculés à la première demande.
+     */
+    private ShiftSlot[] nearbySlots(int originIndex) {
+        ShiftSlot[] nearby = nearbySlots[originIndex];
+        if (nearby == null) {
+            nearby = computeNearbySlots(slots.get(originIndex));
+            nearbySlots[originIndex] = nearby;
+        }
+        return nearby;
+    }
+
+    /**
+     * Les NEARBY_SIZE slots les plus proches de l'origine (origine exclue), du plus proche au plus loin.
+     * Les distances croissent strictement d'une demi-journée à l'autre : on parcourt les demi-journées
+     * de part et d'autre de celle de l'origine, par écart croissant.
+     */
+    private ShiftSlot[] computeNearbySlots(ShiftSlot origin) {
+        List<ShiftSlot> candidates = new ArrayList<>();
+        int originHalfDay = ShiftSlotNearbyDistanceMeter.halfDayIndex(origin);
+        int originPosition = Arrays.binarySearch(halfDays, originHalfDay);
+        int below = originPosition - 1;
+        int above = originPosition + 1;
+        addCandidates(candidates, originPosition, origin);
+        while (candidates.size() < NEARBY_SIZE && (below >= 0 || above < halfDays.length)) {
+            // Prochaine demi-journée la plus proche ; à écart égal, les deux sont prises
+            int belowGap = below >= 0 ? originHalfDay - halfDays[below] : Integer.MAX_VALUE;
+            int aboveGap = above < halfDays.length ? halfDays[above] - originHalfDay : Integer.MAX_VALUE;
+            if (belowGap <= aboveGap) {
+                addCandidates(candidates, below--, origin);
+            }
+            if (aboveGap <= belowGap) {
+                addCandidates(candidates, above++, origin);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(candidate -> distanceMeter.getNearbyDistance(origin, candidate)));
+        return candidates.subList(0, Math.min(NEARBY_SIZE, candidates.size())).toArray(new ShiftSlot[0]);
+    }
+
+    private void addCandidates(List<ShiftSlot> candidates, int halfDayPosition, ShiftSlot origin) {
+        for (ShiftSlot candidate : slotsByHalfDay.get(halfDayPosition)) {
+            if (candidate != origin) {
+                candidates.add(candidate);
+            }
+        }
+    }
+
+    private class RandomNearbySwapMoveIterator implements Iterator<Move<ScheduleSolution>> {
+
+        private final Random workingRandom;
+        private Move<ScheduleSolution> upcomingMove;
+
+        RandomNearbySwapMoveIterator(Random workingRandom) {
+            this.workingRandom = workingRandom;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (upcomingMove == null) {
+                upcomingMove = createMove();
+            }
+            return upcomingMove != null;
+        }
+
+        @Override
+        public Move<ScheduleSolution> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move<ScheduleSolution> move = upcomingMove;
+            upcomingMove = null;
+            return move;
+        }
+
+        /**
+         * Null si aucun swap éligible trouvé en MAX_ATTEMPTS tirages (hasNext() = false : l'union
+         * ne tire plus ce selector pour ce step).
+         */
+        private Move<ScheduleSolution> createMove() {
+            if (slots.size() < 2) {
+                return null;
+            }
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                int originIndex = workingRandom.nextInt(slots.size());
+                ShiftSlot origin = slots.get(originIndex);
+                ShiftSlot[] nearby = nearbySlots(originIndex);
+                ShiftSlot destination = nearby[nextNearbyIndex(nearby.length)];
+                if (ShiftSlotSwapMoveFilter.isSwapEligible(origin, destination)) {
+                    return new SwapMove<>(List.of(staffVariable), origin, destination);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Distribution linéaire décroissante sur [0, size) : le plus proche voisin est tiré
+         * size fois plus souvent que le plus lointain.
+         */
+        private int nextNearbyIndex(int size) {
+            int index = (int) (size * (1.0 - Math.sqrt(1.0 - workingRandom.nextDouble())));
+            return Math.min(index, size - 1);
+        }
+    }
+
+    private class OriginalNearbySwapMoveIterator implements Iterator<Move<ScheduleSolution>> {
+
+        private int originIndex;
+        private int nearbyIndex;
+        private Move<ScheduleSolution> upcomingMove;
+
+        @Override
+        public boolean hasNext() {
+            while (upcomingMove == null && originIndex < slots.size()) {
+                ShiftSlot[] nearby = nearbySlots(originIndex);
+                if (nearbyIndex >= nearby.length) {
+                    originIndex++;
+                    nearbyIndex = 0;
+                    continue;
+                }
+                ShiftSlot origin = slots.get(originIndex);
+                ShiftSlot destination = nearby[nearbyIndex++];
+                if (ShiftSlotSwapMoveFilter.isSwapEligible(origin, destination)) {
+                    upcomingMove = new SwapMove<>(List.of(staffVariable), origin, destination);
+                }
+            }
+            return upcomingMove != null;
+        }
+
+        @Override
+        public Move<ScheduleSolution> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Move<ScheduleSolution> move = upcomingMove;
+            upcomingMove = null;
+            return move;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ClosingRole;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.Shift;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Rolling horizon: solves a multi-week period one week at a time.
+ *
+ * For each week (Monday to Sunday, in date order):
+ * 1. Warm start: each slot / closing of the week starts with the staff that held the same
+ *    position (location, weekday, period, skill, slot index / role) the previous week, when
+ *    that staff is still eligible. The construction heuristic only fills the remaining ones.
+ * 2. The window solved = the weeks already solved, pinned (@PlanningPin), + the current week.
+ *    Pinned entities are never moved but still count in the score, so the cross-week state
+ *    (S-WORKLOAD closing and Porrentruy charges) is carried forward. Per-week rules
+ *    (M-FLEX-1) and per-day rules only see the current week.
+ * 3. The assignments of the week are copied back into the problem and pinned.
+ *
+ * Each window is solved with the termination of the week solver config, so the total time grows
+ * linearly with the number of weeks. Moves only touch the unpinned week; the pinned history only
+ * costs the window initialization (score director reset, best solution clones).
+ * The pins are removed at the end and the shadow variables and score are recomputed on the whole
+ * problem, so the returned problem is consistent and ready for a normal re-solve.
+ */
+public class RollingHorizonSolver {
+
+    private static final Logger log = LoggerFactory.getLogger(RollingHorizonSolver.class);
+
+    private final SolverFactory<ScheduleSolution> weekSolverFactory;
+    private final SolutionManager<ScheduleSolution, HardMediumSoftScore> solutionManager;
+
+    public RollingHorizonSolver(SolverConfig weekSolverConfig) {
+        this.weekSolverFactory = SolverFactory.create(weekSolverConfig);
+        this.solutionManager = SolutionManager.create(weekSolverFactory);
+    }
+
+    public ScheduleSolution solve(ScheduleSolution problem) {
+        long startTime = System.currentTimeMillis();
+        TreeMap<LocalDate, Week> weeks = groupByWeek(problem);
+        log.info("Rolling horizon: {} weeks", weeks.size());
+
+        Set<Shift> windowShifts = new LinkedHashSet<>();
+        List<ShiftSlot> windowSlots = new ArrayList<>();
+        List<ClosingAssignment> windowClosings = new ArrayList<>();
+        Week previousWeek = null;
+        ScheduleSolution solved = null;
+        for (Week week : weeks.values()) {
+            long weekStartTime = System.currentTimeMillis();
+            int warmStarted = previousWeek != null ? warmStart(previousWeek, week) : 0;
+
+            for (ShiftSlot slot : week.slots) {
+                windowShifts.add(slot.getShift());
+            }
+            windowSlots.addAll(week.slots);
+            windowClosings.addAll(week.closingAssignments);
+            solved = weekSolverFactory.buildSolver().solve(buildWindow(problem, windowShifts, windowSlots, windowClosings));
+
+            // The solver returns a planning clone: copy the week back by entity id, then pin it
+            Map<UUID, Staff> staffBySlotId = new HashMap<>();
+            Map<UUID, Staff> staffByClosingId = new HashMap<>();
+            solved.getShiftSlots().forEach(slot -> staffBySlotId.put(slot.getId(), slot.getStaff()));
+            solved.getClosingAssignments().forEach(ca -> staffByClosingId.put(ca.getId(), ca.getStaff()));
+            for (ShiftSlot slot : week.slots) {
+                slot.setStaff(staffBySlotId.get(slot.getId()));
+                slot.setPinned(true);
+            }
+            for (ClosingAssignment ca : week.closingAssignments) {
+                ca.setStaff(staffByClosingId.get(ca.getId()));
+                // An uninitialized closing (termination during the CH) stays movable for the next window
+                ca.setPinned(ca.getStaff() != null);
+            }
+            log.info("  Week {}: {} slots ({} warm started), {} closings, window {} slots, score {} in {} ms",
+                week.weekStart, week.slots.size(), warmStarted, week.closingAssignments.size(),
+                windowSlots.size(), solved.getScore(), System.currentTimeMillis() - weekStartTime);
+            previousWeek = week;
+        }
+
+        problem.getShiftSlots().forEach(slot -> slot.setPinned(false));
+        problem.getClosingAssignments().forEach(ca -> ca.setPinned(false));
+        // Only the genuine variables were copied back: recompute the shadow variables
+        // (work day counts, full days, closing half-days) and the score of the whole period
+        solutionManager.update(problem);
+        log.info("Rolling horizon finished in {} ms, score {}", System.currentTimeMillis() - startTime, problem.getScore());
+        return problem;
+    }
+
+    /**
+     * Window = shared problem facts + the entities of the solved weeks and the current week.
+     * Staff caches, shift locations and slot eligibility were built by problem.initializeMaps(),
+     * so the window doesn't rebuild them (the lookup maps are not used by the score).
+     */
+    private static ScheduleSolution buildWindow(ScheduleSolution problem, Set<Shift> shifts,
+            List<ShiftSlot> slots, List<ClosingAssignment> closingAssignments) {
+        ScheduleSolution window = new ScheduleSolution();
+        window.setStaffList(problem.getStaffList());
+        window.setLocations(problem.getLocations());
+        window.setAbsences(problem.getAbsences());
+        window.setShifts(new ArrayList<>(shifts));
+        window.setShiftSlots(new ArrayList<>(slots));
+        window.setClosingAssignments(new ArrayList<>(closingAssignments));
+        return window;
+    }
+
+    // ========== Warm start ==========
+
+    /**
+     * Copies the previous week's staff onto the unassigned positions of this week.
+     * Returns the number of slots warm started.
+     */
+    private static int warmStart(Week previousWeek, Week week) {
+        Map<SlotPosition, Staff> staffBySlotPosition = new HashMap<>();
+        for (ShiftSlot slot : previousWeek.slots) {
+            if (slot.getStaff() != null) {
+                staffBySlotPosition.put(SlotPosition.of(slot), slot.getStaff());
+            }
+        }
+        int warmStarted = 0;
+        for (ShiftSlot slot : week.slots) {
+            Staff staff = staffBySlotPosition.get(SlotPosition.of(slot));
+            if (slot.getStaff() == null && staff != null && slot.isStaffEligible(staff)) {
+                slot.setStaff(staff);
+                warmStarted++;
+            }
+        }
+
+        Map<ClosingPosition, Staff> staffByClosingPosition = new HashMap<>();
+        for (ClosingAssignment ca : previousWeek.closingAssignments) {
+            if (ca.getStaff() != null) {
+                staffByClosingPosition.put(ClosingPosition.of(ca), ca.getStaff());
+            }
+        }
+        for (ClosingAssignment ca : week.closingAssignments) {
+            if (ca.getStaff() == null) {
+                ca.setStaff(staffByClosingPosition.get(ClosingPosition.of(ca)));
+            }
+        }
+        return warmStarted;
+    }
+
+    private record SlotPosition(UUID locationId, DayOfWeek dayOfWeek, int periodId, UUID skillId, String needType,
+            int slotIndex) {
+
+        static SlotPosition of(ShiftSlot slot) {
+            return new SlotPosition(slot.getLocationId(), slot.getDate() != null ? slot.getDate().getDayOfWeek() : null,
+                slot.getPeriodId(), slot.getSkillId(), slot.getNeedType(), slot.getSlotIndex());
+        }
+    }
+
+    private record ClosingPosition(UUID locationId, DayOfWeek dayOfWeek, ClosingRole role) {
+
+        static ClosingPosition of(ClosingAssignment ca) {
+            return new ClosingPosition(ca.getLocationId(), ca.getDate() != null ? ca.getDate().getDayOfWeek() : null,
+                ca.getRole());
+        }
+    }
+
+    // ========== Weeks ==========
+
+    private static TreeMap<LocalDate, Week> groupByWeek(ScheduleSolution problem) {
+        // Entities without a date are solved with the first week
+        TreeMap<LocalDate, Week> weeks = new TreeMap<>();
+        List<ShiftSlot> undatedSlots = new ArrayList<>();
+        List<ClosingAssignment> undatedClosings = new ArrayList<>();
+        for (ShiftSlot slot : problem.getShiftSlots()) {
+            if (slot.getWeekStart() == null) {
+                undatedSlots.add(slot);
+            } else {
+                weeks.computeIfAbsent(slot.getWeekStart(), Week::new).slots.add(slot);
+            }
+        }
+        for (ClosingAssignment ca : problem.getClosingAssignments()) {
+            LocalDate weekStart = Shift.weekStartOf(ca.getDate());
+            if (weekStart == null) {
+                undatedClosings.add(ca);
+            } else {
+                weeks.computeIfAbsent(weekStart, Week::new).closingAssignments.add(ca);
+            }
+        }
+        if (!undatedSlots.isEmpty() || !undatedClosings.isEmpty()) {
+            Week firstWeek = weeks.isEmpty() ? weeks.computeIfAbsent(LocalDate.MIN, Week::new) : weeks.firstEntry().getValue();
+            firstWeek.slots.addAll(undatedSlots);
+            firstWeek.closingAssignments.addAll(undatedClosings);
+        }
+        return weeks;
+    }
+
+    /**
+     * Entities of one week.
+     */
+    private static final class Week {
+
+        private final LocalDate weekStart;
+        private final List<ShiftSlot> slots = new ArrayList<>();
+        private final List<ClosingAssignment> closingAssignments = new ArrayList<>();
+
+        Week(LocalDate weekStart) {
+            this.weekStart = weekStart;
+        }
+    }
+}
@@ -2,19 +2,21 @@ package com.scheduler.solver;
 
 import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import ai.timefold.solver.core.api.score.stream.Constraint;
-import ai.timefold.solver.core.api.score.stream.ConstraintCollectors;
 import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
 import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
 import ai.timefold.solver.core.api.score.stream.Joiners;
+import ai.timefold.solver.core.api.score.stream.tri.TriConstraintStream;
 
 import com.scheduler.domain.ClosingAssignment;
 import com.scheduler.domain.ClosingRole;
+import com.scheduler.domain.KeyIndex;
 import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+import com.scheduler.domain.WorkloadItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Set;
-import java.util.UUID;
+import java.time.LocalDate;
 
 /**
  * Contraintes du staff scheduler.
@@ -31,6 +33,15 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
 
     private static final Logger log = LoggerFactory.getLogger(ScheduleConstraintProvider.class);
 
+    // S-WORKLOAD: sources de charge (voir workloadFairness)
+    private static final WorkloadCollector WORKLOAD_COLLECTOR = new WorkloadCollector(
+        WorkloadCollector.LoadSource.perItem(ClosingAssignment.class,
+            ca -> ca.getRole() != ClosingRole.ROLE_3F,
+            ca -> closingCharge(ca.getRole())),
+        WorkloadCollector.LoadSource.perDayBeyond(ShiftSlot.class,
+            slot -> slot.isBurdenSite() && slot.getSitePriority() != 1,
+            ShiftSlot::getDayIndex, 1, 10));
+
     @Override
     public Constraint[] defineConstraints(ConstraintFactory factory) {
         log.info("=== ScheduleConstraintProvider.defineConstraints() ===");
@@ -80,72 +91,75 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
     // Le filtre rejette les moves invalides AVANT que le solver les considère,
     // réduisant ainsi l'espace de recherche et accélérant le solving.
 
+    /**
+     * Slots assignés groupés par (staff, jour) : source commune de HS4, SS3 et SS4.
+     * Les trois contraintes appellent cette méthode, Bavet partage donc le même nœud groupBy
+     * (mêmes références de méthode, même instance de collector).
+     */
+    private static TriConstraintStream<Staff, Integer, StaffDayProfile> staffDayProfiles(ConstraintFactory factory) {
+        return factory.forEach(ShiftSlot.class)
+            .groupBy(ShiftSlot::getStaff, ShiftSlot::getDayKey, StaffDayProfile.collector());
+    }
+
     /**
      * HS4: Staff can't be assigned to two slots at the same time (same date/period).
-     * This prevents double-booking.
+     * This prevents double-booking. Penalized once per pair of slots on the same half-day.
      */
     Constraint slotNoDoubleBooking(ConstraintFactory factory) {
-        return factory.forEachIncludingUnassigned(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .join(ShiftSlot.class,
-                Joiners.equal(slot -> slot.getStaff().getId(), slot -> slot.getStaff().getId()),
-                Joiners.equal(ShiftSlot::getDate, ShiftSlot::getDate),
-                Joiners.equal(ShiftSlot::getPeriodId, ShiftSlot::getPeriodId),
-                Joiners.lessThan(ShiftSlot::getId, ShiftSlot::getId))  // Avoid counting twice
-            .penalize(HardMediumSoftScore.ofHard(100))
+        return staffDayProfiles(factory)
+            .filter((staff, day, profile) -> profile.doubleBookings() > 0)
+            .penalize(HardMediumSoftScore.ofHard(100), (staff, day, profile) -> profile.doubleBookings())
             .asConstraint("HS4: Slot no double booking");
     }
 
     /**
-     * M-FLEX-1: Flexible staff - ne doit pas dépasser daysPerWeek jours travaillés.
-     *
-     * Un jour travaillé = au moins 1 slot assigné (AM ou PM ou les deux).
-     * Utilise groupBy avec toSet pour collecter les dates uniques par staff.
+     * Jours travaillés par (staff flexible, semaine) : source commune de M-FLEX-1 et S-FLEX-2.
      *
-     * Ex: daysPerWeek=3 → peut travailler max 3 jours (seulement AM ou AM+PM OK)
+     * Un jour travaillé = au moins 1 slot assigné (AM ou PM ou les deux), hors admin / repos.
+     * DistinctWorkDayCollector compte les jours distincts avec un masque par jour de la semaine ;
+     * les deux contraintes appellent cette méthode et partagent le même nœud groupBy.
      */
-    Constraint flexibleCorrectDaysOff(ConstraintFactory factory) {
+    private static TriConstraintStream<Staff, LocalDate, Integer> flexibleWorkDays(ConstraintFactory factory) {
         return factory.forEach(ShiftSlot.class)
             .filter(slot -> slot.getStaff() != null)
             .filter(slot -> slot.getStaff().isHasFlexibleSchedule())
             .filter(slot -> !slot.isAdmin() && !slot.isRest())
-            // Grouper par staff, collecter les dates uniques
-            .groupBy(ShiftSlot::getStaff,
-                     ConstraintCollectors.toSet(ShiftSlot::getDate))
-            // Vérifier si jours travaillés > daysPerWeek
-            .filter((staff, dates) -> {
+            .groupBy(ShiftSlot::getStaff, ShiftSlot::getWeekStart, DistinctWorkDayCollector.INSTANCE);
+    }
+
+    /**
+     * M-FLEX-1: Flexible staff - ne doit pas dépasser daysPerWeek jours travaillés par semaine.
+     *
+     * La règle est hebdomadaire : sur un planning de plusieurs semaines (ou avec les semaines
+     * précédentes épinglées, voir RollingHorizonSolver), chaque semaine est comptée séparément.
+     *
+     * Ex: daysPerWeek=3 → peut travailler max 3 jours par semaine (seulement AM ou AM+PM OK)
+     */
+    Constraint flexibleCorrectDaysOff(ConstraintFactory factory) {
+        return flexibleWorkDays(factory)
+            // Vérifier si jours travaillés dans la semaine > daysPerWeek
+            .filter((staff, weekStart, workDays) -> {
                 Integer daysPerWeek = staff.getDaysPerWeek();
-                return daysPerWeek != null && dates.size() > daysPerWeek;
+                return daysPerWeek != null && workDays > daysPerWeek;
             })
             // Pénalité proportionnelle au dépassement
             .penalize(HardMediumSoftScore.ofMedium(5000),
-                      (staff, dates) -> dates.size() - staff.getDaysPerWeek())
+                      (staff, weekStart, workDays) -> workDays - staff.getDaysPerWeek())
             .asConstraint("M-FLEX-1: Flexible max work days");
     }
 
     /**
      * S-FLEX-2: Reward pour chaque jour travaillé par un flexible.
      * Encourage le solver à assigner les flexibles (jusqu'à daysPerWeek).
-     * Un reward par jour travaillé (pas par slot).
+     * Un reward par jour travaillé (pas par slot), compté semaine par semaine.
      */
     Constraint flexibleWorkDayReward(ConstraintFactory factory) {
-        return factory.forEach(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .filter(slot -> slot.getStaff().isHasFlexibleSchedule())
-            .filter(slot -> !slot.isAdmin() && !slot.isRest())
-            // Grouper par staff, collecter les dates uniques
-            .groupBy(ShiftSlot::getStaff,
-                     ConstraintCollectors.toSet(ShiftSlot::getDate))
-            // Reward pour chaque jour travaillé (taille du set)
+        return flexibleWorkDays(factory)
             .reward(HardMediumSoftScore.ofSoft(2000),
-                    (staff, dates) -> dates.size())
+                    (staff, weekStart, workDays) -> workDays)
             .asConstraint("S-FLEX-2: Flexible work day reward");
     }
 
-    // =========================================================================
-    // SHIFT SLOT CONSTRAINTS - MEDIUM (Coverage - simple negative penalties)
-    // =========================================================================
-
     /**
      * M-UNASSIGNED-SURGICAL: Pénalité pour chaque slot chirurgical non couvert.
      */
@@ -176,68 +190,36 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
     // =========================================================================
 
     /**
-     * SS1: Bonus if staff works with a preferred physician.
+     * SS1: Bonus if staff works with a preferred physician (P1=100, P2=60, P3=30).
+     * Reward read from the affinity table of the shift (Shift.initializeAffinity).
      */
     Constraint slotPhysicianPreference(ConstraintFactory factory) {
-        return factory.forEachIncludingUnassigned(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .filter(slot -> slot.getShift() != null)
-            .filter(slot -> slot.getShift().getPhysicianIds() != null && !slot.getShift().getPhysicianIds().isEmpty())
-            .reward(HardMediumSoftScore.ofSoft(1),
-                slot -> {
-                    Set<UUID> shiftPhysicians = slot.getShift().getPhysicianIds();
-                    int bestPriority = 0;
-                    for (UUID physicianId : shiftPhysicians) {
-                        int priority = slot.getStaff().getPhysicianPriority(physicianId);
-                        if (priority > 0 && (bestPriority == 0 || priority < bestPriority)) {
-                            bestPriority = priority;
-                        }
-                    }
-                    // P1=100, P2=60, P3=30
-                    if (bestPriority == 1) return 100;
-                    if (bestPriority == 2) return 60;
-                    if (bestPriority == 3) return 30;
-                    return 0;
-                })
+        return factory.forEach(ShiftSlot.class)
+            .filter(slot -> slot.getPhysicianReward() > 0)
+            .reward(HardMediumSoftScore.ofSoft(1), ShiftSlot::getPhysicianReward)
             .asConstraint("SS1: Slot physician preference");
     }
 
     /**
-     * SS2: Bonus if staff works with a preferred skill.
+     * SS2: Bonus if staff works with a preferred skill (P1=80, P2=60, P3=40, P4=20).
+     * Reward read from the affinity table of the shift (Shift.initializeAffinity).
      */
     Constraint slotSkillPreference(ConstraintFactory factory) {
-        return factory.forEachIncludingUnassigned(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .reward(HardMediumSoftScore.ofSoft(1),
-                slot -> {
-                    int skillPref = slot.getSkillPreference(); // 1-4, 0 if none
-                    // P1=80, P2=60, P3=40, P4=20, none=0
-                    if (skillPref == 1) return 80;
-                    if (skillPref == 2) return 60;
-                    if (skillPref == 3) return 40;
-                    if (skillPref == 4) return 20;
-                    return 0;
-                })
+        return factory.forEach(ShiftSlot.class)
+            .filter(slot -> slot.getSkillReward() > 0)
+            .reward(HardMediumSoftScore.ofSoft(1), ShiftSlot::getSkillReward)
             .asConstraint("SS2: Slot skill preference");
     }
 
     /**
      * SS3: Bonus if staff stays at the same location between AM and PM.
      * Encourages continuity to avoid travel between locations.
+     * Rewarded once per AM/PM pair at the same location (see StaffDayProfile).
      */
     Constraint slotLocationContinuity(ConstraintFactory factory) {
-        return factory.forEachIncludingUnassigned(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .filter(slot -> slot.getPeriodId() == 1)  // AM only to avoid double counting
-            .filter(slot -> slot.getLocationId() != null)
-            .join(ShiftSlot.class,
-                Joiners.equal(slot -> slot.getStaff().getId(), slot -> slot.getStaff().getId()),
-                Joiners.equal(ShiftSlot::getDate, ShiftSlot::getDate),
-                Joiners.filtering((am, pm) -> pm.getPeriodId() == 2))
-            .filter((am, pm) -> pm.getStaff() != null)
-            .filter((am, pm) -> pm.getLocationId() != null)
-            .filter((am, pm) -> am.getLocationId().equals(pm.getLocationId()))
-            .reward(HardMediumSoftScore.ofSoft(50))  // Bonus for same location
+        return staffDayProfiles(factory)
+            .filter((staff, day, profile) -> profile.sameLocationPairs() > 0)
+            .reward(HardMediumSoftScore.ofSoft(50), (staff, day, profile) -> profile.sameLocationPairs())
             .asConstraint("SS3: Slot location continuity");
     }
 
@@ -248,15 +230,11 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
     /**
      * H-CLOSING-FULLDAY-AM: Staff with closing must work the AM shift at that location.
      * Combined with H-CLOSING-FULLDAY-PM, this ensures closing staff works the FULL day.
+     * workedHalfDays is maintained by ClosingFullDayListener.
      */
     Constraint closingStaffMustWorkFullDayAM(ConstraintFactory factory) {
         return factory.forEach(ClosingAssignment.class)
-            .filter(ca -> ca.getStaff() != null)
-            .ifNotExists(ShiftSlot.class,
-                Joiners.equal(ca -> ca.getStaff().getId(), slot -> slot.getStaff() != null ? slot.getStaff().getId() : null),
-                Joiners.equal(ClosingAssignment::getLocationId, ShiftSlot::getLocationId),
-                Joiners.equal(ClosingAssignment::getDate, ShiftSlot::getDate),
-                Joiners.equal(ca -> 1, ShiftSlot::getPeriodId))  // AM = periodId 1
+            .filter(ca -> !ca.isWorkingAm())
             .penalize(HardMediumSoftScore.ofHard(10000))
             .asConstraint("H-CLOSING-FULLDAY-AM: Closing staff must work AM");
     }
@@ -267,12 +245,7 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
      */
     Constraint closingStaffMustWorkFullDayPM(ConstraintFactory factory) {
         return factory.forEach(ClosingAssignment.class)
-            .filter(ca -> ca.getStaff() != null)
-            .ifNotExists(ShiftSlot.class,
-                Joiners.equal(ca -> ca.getStaff().getId(), slot -> slot.getStaff() != null ? slot.getStaff().getId() : null),
-                Joiners.equal(ClosingAssignment::getLocationId, ShiftSlot::getLocationId),
-                Joiners.equal(ClosingAssignment::getDate, ShiftSlot::getDate),
-                Joiners.equal(ca -> 2, ShiftSlot::getPeriodId))  // PM = periodId 2
+            .filter(ca -> !ca.isWorkingPm())
             .penalize(HardMediumSoftScore.ofHard(10000))
             .asConstraint("H-CLOSING-FULLDAY-PM: Closing staff must work PM");
     }
@@ -285,13 +258,14 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
         return factory.forEach(ClosingAssignment.class)
             .filter(ca -> ca.getStaff() != null)
             .filter(ca -> ca.getRole() == ClosingRole.ROLE_1R)
+            .filter(ca -> ca.getLocationIndex() != KeyIndex.NO_INDEX)  // NO_INDEX == NO_INDEX in the join
             .join(ClosingAssignment.class,
-                Joiners.equal(ClosingAssignment::getLocationId),
-                Joiners.equal(ClosingAssignment::getDate),
+                Joiners.equal(ClosingAssignment::getLocationIndex),
+                Joiners.equal(ClosingAssignment::getDayKey),
                 Joiners.filtering((ca1, ca2) ->
                     ca2.getRole() == ClosingRole.ROLE_2F &&
                     ca2.getStaff() != null &&
-                    ca1.getStaff().getId().equals(ca2.getStaff().getId())))
+                    ca1.getStaff().getIndex() == ca2.getStaff().getIndex()))
             .penalize(HardMediumSoftScore.ofHard(10000))
             .asConstraint("H-CLOSING: 1R != 2F");
     }
@@ -312,21 +286,12 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
 
     /**
      * SS4: Pénalité si staff change de site entre AM et PM.
-     * Uses ShiftSlot instead of StaffAssignment.
+     * Une pénalité par paire AM/PM sur deux sites différents (voir StaffDayProfile).
      */
     Constraint slotSiteChangePenalty(ConstraintFactory factory) {
-        return factory.forEachIncludingUnassigned(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .filter(slot -> slot.getPeriodId() == 1)  // AM only
-            .filter(slot -> slot.getSiteId() != null)
-            .join(ShiftSlot.class,
-                Joiners.equal(slot -> slot.getStaff().getId(), slot -> slot.getStaff().getId()),
-                Joiners.equal(ShiftSlot::getDate, ShiftSlot::getDate),
-                Joiners.filtering((am, pm) -> pm.getPeriodId() == 2))
-            .filter((am, pm) -> pm.getStaff() != null)
-            .filter((am, pm) -> pm.getSiteId() != null)
-            .filter((am, pm) -> !am.getSiteId().equals(pm.getSiteId()))
-            .penalize(HardMediumSoftScore.ofSoft(20))
+        return staffDayProfiles(factory)
+            .filter((staff, day, profile) -> profile.siteChangePairs() > 0)
+            .penalize(HardMediumSoftScore.ofSoft(20), (staff, day, profile) -> profile.siteChangePairs())
             .asConstraint("SS4: Slot site change penalty");
     }
 
@@ -342,37 +307,27 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
      * Porrentruy charge (si pas pref 1):
      *   - 10 points par jour au-delà de 1 jour
      *   - 1 jour = 0, 2 jours = 10, 3 jours = 20, etc.
+     *   - Porrentruy = sites pénibles configurés (ScheduleSolution.burdenSites, --burden-sites),
+     *     testés via le flag Shift.isBurdenSite posé au chargement
      */
     Constraint workloadFairness(ConstraintFactory factory) {
-        // Stream 1: Closing charges per staff (10×1R + 13×2F) from ClosingAssignment
-        var closingCharges = factory.forEach(ClosingAssignment.class)
-            .filter(ca -> ca.getStaff() != null)
-            .filter(ca -> ca.getRole() != ClosingRole.ROLE_3F)
-            .groupBy(ClosingAssignment::getStaff,
-                ConstraintCollectors.sum(ca -> {
-                    ClosingRole role = ca.getRole();
-                    if (role == ClosingRole.ROLE_1R) return 10;
-                    if (role == ClosingRole.ROLE_2F) return 13;
-                    return 0;
-                }));
-
-        // Stream 2: Porrentruy charges per staff (10×(days-1) if days>1 and not pref 1)
-        var porrentruyCharges = factory.forEachIncludingUnassigned(ShiftSlot.class)
-            .filter(slot -> slot.getStaff() != null)
-            .filter(slot -> "Porrentruy".equalsIgnoreCase(slot.getSiteName()))
-            .filter(slot -> slot.getStaff().getSitePriority(slot.getSiteId()) != 1)
-            .groupBy(ShiftSlot::getStaff,
-                ConstraintCollectors.toSet(ShiftSlot::getDate))
-            .groupBy((staff, dates) -> staff,
-                ConstraintCollectors.sum((staff, dates) ->
-                    dates.size() > 1 ? (dates.size() - 1) * 10 : 0));
-
-        // Combine both streams and apply quadratic penalty (÷10 pour réduire l'agressivité)
-        return closingCharges.concat(porrentruyCharges)
-            .groupBy((staff, charge) -> staff,
-                ConstraintCollectors.sum((staff, charge) -> charge))
+        // Un seul groupBy pour les deux sources (closings + jours Porrentruy), voir WorkloadCollector
+        return factory.forEach(WorkloadItem.class)
+            .filter(item -> item.getStaff() != null)
+            .filter(WORKLOAD_COLLECTOR::accepts)
+            .groupBy(WorkloadItem::getStaff, WORKLOAD_COLLECTOR)
+            // Pénalité quadratique (÷10 pour réduire l'agressivité)
             .penalize(HardMediumSoftScore.ofSoft(1),
                 (staff, totalCharge) -> (totalCharge * totalCharge) / 10)
             .asConstraint("S-WORKLOAD: Fairness");
     }
+
+    /**
+     * Closing charge: 1R = 10, 2F = 13 (3F ne compte pas).
+     */
+    static int closingCharge(ClosingRole role) {
+        if (role == ClosingRole.ROLE_1R) return 10;
+        if (role == ClosingRole.ROLE_2F) return 13;
+        return 0;
+    }
 }
@@ -0,0 +1,467 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.score.calculator.IncrementalScoreCalculator;
+
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ClosingRole;
+import com.scheduler.domain.KeyIndex;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calcul de score incrémental écrit à la main, équivalent à ScheduleConstraintProvider.
+ *
+ * Chaque ShiftSlot / ClosingAssignment est "retiré" (retract) avant un changement de staff
+ * et "réinséré" (insert) après. Les compteurs par staff, staff/jour et staff/location/jour
+ * donnent le delta de chaque contrainte en O(1), sans réseau Bavet.
+ *
+ * Contraintes couvertes (mêmes poids que ScheduleConstraintProvider):
+ * - HS4 double booking, M-FLEX-1 / S-FLEX-2, M-UNASSIGNED-SURGICAL / CONSULTATION
+ * - SS1 physician, SS2 skill, SS3 location continuity, SS4 site change
+ * - H-CLOSING-FULLDAY-AM / PM, H-CLOSING 1R != 2F, M-CLOSING-UNASSIGNED
+ * - S-WORKLOAD (closing + Porrentruy, pénalité quadratique)
+ *
+ * Sélection: --score-calculator=INCREMENTAL (voir App). La parité avec les constraint
+ * streams est vérifiée par ScoreParityTest.
+ */
+public class ScheduleIncrementalScoreCalculator
+        implements IncrementalScoreCalculator<ScheduleSolution, HardMediumSoftScore> {
+
+    private static final String STAFF_VARIABLE = "staff";
+
+    private long hardScore;
+    private long mediumScore;
+    private long softScore;
+
+    // HS4, SS3, SS4: slots assignés par (staff, date)
+    private final Map<StaffDate, StaffDayState> staffDayStates = new HashMap<>();
+    // M-FLEX, S-WORKLOAD: état par staff
+    private final Map<Staff, StaffState> staffStates = new HashMap<>();
+    // H-CLOSING-FULLDAY: slots AM/PM par (staff, location, date) + closings de ce staff à cette location/date
+    private final Map<StaffLocationDate, ClosingDayState> closingDayStates = new HashMap<>();
+
+    @Override
+    public void resetWorkingSolution(ScheduleSolution solution) {
+        hardScore = 0L;
+        mediumScore = 0L;
+        softScore = 0L;
+        staffDayStates.clear();
+        staffStates.clear();
+        closingDayStates.clear();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            insert(slot);
+        }
+        for (ClosingAssignment ca : solution.getClosingAssignments()) {
+            insert(ca);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // No-op
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert(entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        // Shadow variables (staffWorkDayCount, isWorkingFullDay) are not used by the score
+        if (STAFF_VARIABLE.equals(variableName)) {
+            retract(entity);
+        }
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        if (STAFF_VARIABLE.equals(variableName)) {
+            insert(entity);
+        }
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract(entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // No-op
+    }
+
+    @Override
+    public HardMediumSoftScore calculateScore() {
+        return HardMediumSoftScore.ofUninitialized(0,
+            Math.toIntExact(hardScore), Math.toIntExact(mediumScore), Math.toIntExact(softScore));
+    }
+
+    private void insert(Object entity) {
+        if (entity instanceof ShiftSlot slot) {
+            updateSlot(slot, 1);
+        } else if (entity instanceof ClosingAssignment ca) {
+            updateClosing(ca, 1);
+        }
+    }
+
+    private void retract(Object entity) {
+        if (entity instanceof ShiftSlot slot) {
+            updateSlot(slot, -1);
+        } else if (entity instanceof ClosingAssignment ca) {
+            updateClosing(ca, -1);
+        }
+    }
+
+    // =========================================================================
+    // SHIFT SLOT
+    // =========================================================================
+
+    /**
+     * Applies (sign=1) or removes (sign=-1) the contribution of one slot.
+     */
+    private void updateSlot(ShiftSlot slot, int sign) {
+        Staff staff = slot.getStaff();
+
+        // M-UNASSIGNED-SURGICAL / M-UNASSIGNED-CONSULTATION
+        if (staff == null) {
+            if (slot.isSurgical()) {
+                mediumScore -= sign * 1500L;
+            }
+            if (slot.isConsultation()) {
+                mediumScore -= sign * 1000L;
+            }
+            return;
+        }
+
+        // SS1 + SS2: constants for a (slot, staff) pair
+        softScore += sign * (long) (slot.getShift() != null
+            ? slot.getShift().getPhysicianReward(staff) + slot.getShift().getSkillReward(staff) : 0);
+
+        LocalDate date = slot.getDate();
+        int periodId = slot.getPeriodId();
+
+        // HS4, SS3, SS4
+        StaffDate staffDate = new StaffDate(staff, slot.getDayIndex());
+        StaffDayState day = staffDayStates.computeIfAbsent(staffDate, k -> new StaffDayState());
+        if (sign < 0) {
+            day.remove(slot);
+        }
+        hardScore -= sign * 100L * day.periodCount(periodId);
+        if (periodId == 1) {
+            softScore += sign * (50L * day.pmLocationCount(slot.getLocationIndex())
+                - 20L * day.pmOtherSiteCount(slot.getSiteIndex()));
+        } else if (periodId == 2) {
+            softScore += sign * (50L * day.amLocationCount(slot.getLocationIndex())
+                - 20L * day.amOtherSiteCount(slot.getSiteIndex()));
+        }
+        if (sign > 0) {
+            day.add(slot);
+        } else if (day.isEmpty()) {
+            staffDayStates.remove(staffDate);
+        }
+
+        // M-FLEX-1, S-FLEX-2, S-WORKLOAD (Porrentruy)
+        boolean flexDay = staff.isHasFlexibleSchedule() && !slot.isAdmin() && !slot.isRest();
+        boolean burdenDay = slot.isBurdenSite()
+            && staff.getSitePriority(slot.getSiteIndex()) != 1;
+        if (flexDay || burdenDay) {
+            StaffState state = staffState(staff);
+            retractStaffScore(state);
+            if (flexDay) {
+                state.updateFlexDay(slot.getWeekStart(), date, sign);
+            }
+            if (burdenDay) {
+                state.burdenDays.update(date, sign);
+            }
+            insertStaffScore(state);
+            removeIfEmpty(state);
+        }
+
+        // H-CLOSING-FULLDAY-AM / PM
+        if ((periodId == 1 || periodId == 2) && slot.getLocationIndex() != KeyIndex.NO_INDEX) {
+            StaffLocationDate key = new StaffLocationDate(staff, slot.getLocationIndex(), slot.getDayIndex());
+            ClosingDayState closingDay = closingDayStates.computeIfAbsent(key, k -> new ClosingDayState());
+            hardScore += closingDay.fullDayPenalty();
+            closingDay.slotCount[periodId] += sign;
+            hardScore -= closingDay.fullDayPenalty();
+            if (closingDay.isEmpty()) {
+                closingDayStates.remove(key);
+            }
+        }
+    }
+
+    // =========================================================================
+    // CLOSING ASSIGNMENT
+    // =========================================================================
+
+    /**
+     * Applies (sign=1) or removes (sign=-1) the contribution of one closing assignment.
+     * Unassigned closing assignments are uninitialized (staff is not nullable), so like
+     * forEach(ClosingAssignment.class) they don't match any constraint, including
+     * M-CLOSING-UNASSIGNED.
+     */
+    private void updateClosing(ClosingAssignment ca, int sign) {
+        Staff staff = ca.getStaff();
+        if (staff == null) {
+            return;
+        }
+        StaffLocationDate key = new StaffLocationDate(staff, ca.getLocationIndex(), ca.getDayIndex());
+        ClosingDayState closingDay = closingDayStates.computeIfAbsent(key, k -> new ClosingDayState());
+
+        // H-CLOSING: 1R != 2F (pairs at the same known location/date with the same staff)
+        if (ca.getLocationIndex() != KeyIndex.NO_INDEX) {
+            if (ca.getRole() == ClosingRole.ROLE_1R) {
+                hardScore -= sign * 10000L * closingDay.closingCount[ClosingRole.ROLE_2F.ordinal()];
+            } else if (ca.getRole() == ClosingRole.ROLE_2F) {
+                hardScore -= sign * 10000L * closingDay.closingCount[ClosingRole.ROLE_1R.ordinal()];
+            }
+        }
+
+        // H-CLOSING-FULLDAY-AM / PM
+        hardScore += closingDay.fullDayPenalty();
+        closingDay.closingCount[ca.getRole().ordinal()] += sign;
+        hardScore -= closingDay.fullDayPenalty();
+        if (closingDay.isEmpty()) {
+            closingDayStates.remove(key);
+        }
+
+        // S-WORKLOAD (closing)
+        int charge = closingCharge(ca.getRole());
+        if (charge != 0) {
+            StaffState state = staffState(staff);
+            retractStaffScore(state);
+            state.closingCharge += sign * charge;
+            insertStaffScore(state);
+            removeIfEmpty(state);
+        }
+    }
+
+    private static int closingCharge(ClosingRole role) {
+        if (role == ClosingRole.ROLE_1R) return 10;
+        if (role == ClosingRole.ROLE_2F) return 13;
+        return 0;
+    }
+
+    // =========================================================================
+    // PER STAFF (M-FLEX-1, S-FLEX-2, S-WORKLOAD)
+    // =========================================================================
+
+    private StaffState staffState(Staff staff) {
+        return staffStates.computeIfAbsent(staff, StaffState::new);
+    }
+
+    private void removeIfEmpty(StaffState state) {
+        if (state.isEmpty()) {
+            staffStates.remove(state.staff);
+        }
+    }
+
+    private void retractStaffScore(StaffState state) {
+        mediumScore += state.flexMediumPenalty();
+        softScore -= state.flexSoftReward();
+        softScore += state.workloadPenalty();
+    }
+
+    private void insertStaffScore(StaffState state) {
+        mediumScore -= state.flexMediumPenalty();
+        softScore += state.flexSoftReward();
+        softScore -= state.workloadPenalty();
+    }
+
+    // =========================================================================
+    // STATE
+    // =========================================================================
+
+    // Dates as packed day indexes (Shift.getDayIndex)
+    private record StaffDate(Staff staff, int dayIndex) {
+    }
+
+    private record StaffLocationDate(Staff staff, int locationIndex, int dayIndex) {
+    }
+
+    /**
+     * Multiset of dates (date -> number of slots), size() = distinct days.
+     */
+    private static final class DayCounter {
+
+        private final Map<LocalDate, Integer> countByDate = new HashMap<>();
+
+        void update(LocalDate date, int sign) {
+            countByDate.merge(date, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        int distinctDays() {
+            return countByDate.size();
+        }
+    }
+
+    private static final class StaffState {
+
+        private final Staff staff;
+        // M-FLEX-1 is a weekly rule: distinct flexible days per week start
+        private final Map<LocalDate, DayCounter> flexDaysByWeek = new HashMap<>();
+        private int flexDayCount;    // distinct flexible days, all weeks
+        private int flexExcessDays;  // sum over weeks of the days above daysPerWeek
+        private final DayCounter burdenDays = new DayCounter();
+        private int closingCharge;
+
+        StaffState(Staff staff) {
+            this.staff = staff;
+        }
+
+        void updateFlexDay(LocalDate weekStart, LocalDate date, int sign) {
+            DayCounter week = flexDaysByWeek.computeIfAbsent(weekStart, w -> new DayCounter());
+            int before = week.distinctDays();
+            week.update(date, sign);
+            int after = week.distinctDays();
+            flexDayCount += after - before;
+            flexExcessDays += excessDays(after) - excessDays(before);
+            if (after == 0) {
+                flexDaysByWeek.remove(weekStart);
+            }
+        }
+
+        private int excessDays(int days) {
+            Integer daysPerWeek = staff.getDaysPerWeek();
+            return daysPerWeek != null && days > daysPerWeek ? days - daysPerWeek : 0;
+        }
+
+        // M-FLEX-1: 5000 medium per day above daysPerWeek, per week
+        long flexMediumPenalty() {
+            return 5000L * flexExcessDays;
+        }
+
+        // S-FLEX-2: 2000 soft per work day
+        long flexSoftReward() {
+            return 2000L * flexDayCount;
+        }
+
+        // S-WORKLOAD: (closing + Porrentruy)² / 10
+        long workloadPenalty() {
+            int days = burdenDays.distinctDays();
+            int charge = closingCharge + (days > 1 ? (days - 1) * 10 : 0);
+            return (charge * charge) / 10;
+        }
+
+        boolean isEmpty() {
+            return closingCharge == 0 && flexDayCount == 0 && burdenDays.distinctDays() == 0;
+        }
+    }
+
+    /**
+     * Assigned slots of one staff member on one date.
+     */
+    private static final class StaffDayState {
+
+        private final int[] periodCount = new int[3];
+        // Keyed by dense location / site index (KeyIndex)
+        private final Map<Integer, Integer> amByLocation = new HashMap<>();
+        private final Map<Integer, Integer> pmByLocation = new HashMap<>();
+        private final Map<Integer, Integer> amBySite = new HashMap<>();
+        private final Map<Integer, Integer> pmBySite = new HashMap<>();
+        private int amWithSite;
+        private int pmWithSite;
+        private int slotCount;
+
+        void add(ShiftSlot slot) {
+            update(slot, 1);
+            slotCount++;
+        }
+
+        void remove(ShiftSlot slot) {
+            update(slot, -1);
+            slotCount--;
+        }
+
+        boolean isEmpty() {
+            return slotCount == 0;
+        }
+
+        int periodCount(int periodId) {
+            return periodId >= 0 && periodId < periodCount.length ? periodCount[periodId] : 0;
+        }
+
+        int amLocationCount(int locationIndex) {
+            return locationIndex == KeyIndex.NO_INDEX ? 0 : amByLocation.getOrDefault(locationIndex, 0);
+        }
+
+        int pmLocationCount(int locationIndex) {
+            return locationIndex == KeyIndex.NO_INDEX ? 0 : pmByLocation.getOrDefault(locationIndex, 0);
+        }
+
+        // AM slots with a site different from siteIndex (0 without site)
+        int amOtherSiteCount(int siteIndex) {
+            return siteIndex == KeyIndex.NO_INDEX ? 0 : amWithSite - amBySite.getOrDefault(siteIndex, 0);
+        }
+
+        int pmOtherSiteCount(int siteIndex) {
+            return siteIndex == KeyIndex.NO_INDEX ? 0 : pmWithSite - pmBySite.getOrDefault(siteIndex, 0);
+        }
+
+        private void update(ShiftSlot slot, int sign) {
+            int periodId = slot.getPeriodId();
+            if (periodId >= 0 && periodId < periodCount.length) {
+                periodCount[periodId] += sign;
+            }
+            int locationIndex = slot.getLocationIndex();
+            int siteIndex = slot.getSiteIndex();
+            if (periodId == 1) {
+                if (locationIndex != KeyIndex.NO_INDEX) {
+                    amByLocation.merge(locationIndex, sign, ScheduleIncrementalScoreCalculator::sumOrNull);
+                }
+                if (siteIndex != KeyIndex.NO_INDEX) {
+                    amBySite.merge(siteIndex, sign, ScheduleIncrementalScoreCalculator::sumOrNull);
+                    amWithSite += sign;
+                }
+            } else if (periodId == 2) {
+                if (locationIndex != KeyIndex.NO_INDEX) {
+                    pmByLocation.merge(locationIndex, sign, ScheduleIncrementalScoreCalculator::sumOrNull);
+                }
+                if (siteIndex != KeyIndex.NO_INDEX) {
+                    pmBySite.merge(siteIndex, sign, ScheduleIncrementalScoreCalculator::sumOrNull);
+                    pmWithSite += sign;
+                }
+            }
+        }
+    }
+
+    /**
+     * One staff member at one location on one date:
+     * AM/PM slots worked there and closing roles held there.
+     */
+    private static final class ClosingDayState {
+
+        private final int[] slotCount = new int[3];                               // by periodId
+        private final int[] closingCount = new int[ClosingRole.values().length]; // by role
+
+        int closingTotal() {
+            int total = 0;
+            for (int count : closingCount) {
+                total += count;
+            }
+            return total;
+        }
+
+        // H-CLOSING-FULLDAY-AM / PM: 10000 hard per closing role, for each missing half day
+        long fullDayPenalty() {
+            int missingHalfDays = (slotCount[1] == 0 ? 1 : 0) + (slotCount[2] == 0 ? 1 : 0);
+            return 10000L * missingHalfDays * closingTotal();
+        }
+
+        boolean isEmpty() {
+            return slotCount[1] == 0 && slotCount[2] == 0 && closingTotal() == 0;
+        }
+    }
+
+    private static Integer sumOrNull(Integer a, Integer b) {
+        int sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -19,6 +19,10 @@ import com.scheduler.domain.Staff;
  *
  * Ceci élimine le besoin des contraintes HS1, HS2, HS3
  * et réduit considérablement l'espace de recherche.
+ *
+ * NOTE: ShiftSlot.staff utilise maintenant une value range par entité
+ * (ShiftSlot.getEligibleStaff), donc les moves générés sont déjà éligibles.
+ * Ce filtre reste comme filet de sécurité (lookup O(1) dans le BitSet).
  */
 public class ShiftSlotChangeMoveFilter implements SelectionFilter<ScheduleSolution, Move<ScheduleSolution>> {
 
@@ -47,52 +51,9 @@ public class ShiftSlotChangeMoveFilter implements SelectionFilter<ScheduleSoluti
     }
 
     /**
-     * Vérifie si un staff est éligible pour un slot.
+     * Vérifie si un staff est éligible pour un slot (lookup O(1) dans le BitSet du slot).
      */
     private boolean isEligible(ShiftSlot slot, Staff staff) {
-        if (slot.getShift() == null) {
-            return true; // Pas de shift, accepter
-        }
-
-        // Admin/Rest: seulement vérifier la disponibilité
-        if (slot.isAdmin() || slot.isRest()) {
-            return checkAvailability(slot, staff);
-        }
-
-        // Closing shifts: vérifier skill, site et disponibilité (comme shifts normaux)
-        // Note: closing slots peuvent avoir periodId=0 (full day)
-
-        // 1. Skill check (closing uses the skill from the location's consultation shifts)
-        if (!staff.hasSkill(slot.getSkillId())) {
-            return false;
-        }
-
-        // 2. Site check
-        if (!staff.canWorkAtSite(slot.getSiteId())) {
-            return false;
-        }
-
-        // 3. Availability check (handles periodId=0 for full day)
-        return checkAvailability(slot, staff);
-    }
-
-    /**
-     * Check staff availability for the slot's period.
-     * For periodId=0 (full day), staff must be available BOTH AM and PM.
-     */
-    private boolean checkAvailability(ShiftSlot slot, Staff staff) {
-        if (slot.getDate() == null) {
-            return true;
-        }
-        int dayOfWeek = slot.getDate().getDayOfWeek().getValue();
-        int periodId = slot.getPeriodId();
-
-        // Full day (periodId=0): must be available AM AND PM
-        if (periodId == 0) {
-            return staff.isAvailable(dayOfWeek, 1) && staff.isAvailable(dayOfWeek, 2);
-        }
-
-        // Regular period (1=AM, 2=PM)
-        return staff.isAvailable(dayOfWeek, periodId);
+        return slot.isStaffEligible(staff);
     }
 }
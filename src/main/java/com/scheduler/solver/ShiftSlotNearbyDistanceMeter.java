@@ -0,0 +1,46 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
+
+import com.scheduler.domain.ShiftSlot;
+
+/**
+ * Distance entre deux ShiftSlots pour les swaps "nearby" (NearbySlotSwapMoveIteratorFactory).
+ *
+ * Un swap entre deux demi-journées différentes décale le planning des deux staff (double
+ * booking, journée cassée) et n'améliore presque jamais le score. Ordre des critères :
+ * 1. écart en demi-journées (halfDayIndex : même demi-journée = 0, AM / PM du même jour = 1,
+ *    PM / AM du lendemain = 1)
+ * 2. site différent (+2)
+ * 3. compétence différente (+1)
+ * Un écart d'une demi-journée (10) pèse plus que site + compétence (3).
+ *
+ * L'écart n'est pas celui des timeKeys (dayIndex * 4 + periodId) : PM -> AM du lendemain y
+ * vaut 3, et le slot du lendemain paraîtrait plus loin que l'AM du même jour.
+ */
+public class ShiftSlotNearbyDistanceMeter implements NearbyDistanceMeter<ShiftSlot, ShiftSlot> {
+
+    private static final double HALF_DAY_DISTANCE = 10.0;
+    private static final double SITE_DISTANCE = 2.0;
+    private static final double SKILL_DISTANCE = 1.0;
+
+    @Override
+    public double getNearbyDistance(ShiftSlot origin, ShiftSlot destination) {
+        double distance = HALF_DAY_DISTANCE * Math.abs(halfDayIndex(origin) - halfDayIndex(destination));
+        if (origin.getSiteIndex() != destination.getSiteIndex()) {
+            distance += SITE_DISTANCE;
+        }
+        if (origin.getSkillIndex() != destination.getSkillIndex()) {
+            distance += SKILL_DISTANCE;
+        }
+        return distance;
+    }
+
+    /**
+     * Rang de la demi-journée du slot : dayIndex * 2 pour le AM, + 1 pour le PM.
+     * Un slot journée complète (periodId 0) est rangé avec le AM de son jour.
+     */
+    public static int halfDayIndex(ShiftSlot slot) {
+        return slot.getDayIndex() * 2 + (slot.getPeriodId() == 2 ? 1 : 0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import ai.timefold.solver.core.impl.heuristic.selector.move.generic.SwapMove;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+/**
+ * Filtre les SwapMoves entre deux ShiftSlots.
+ *
+ * Un swap échange les staff de deux slots en un seul move : sans lui, il faut deux ChangeMoves
+ * et passer par un état intermédiaire pire (double booking ou slot découvert) que la Late
+ * Acceptance refuse souvent.
+ *
+ * Rejette le swap si, APRÈS l'échange, un des deux staff n'est pas éligible à son nouveau slot
+ * (skill / site / disponibilité) : deux lookups O(1) dans les BitSets d'éligibilité des slots,
+ * avant le contrôle de value range de SwapMove.isMoveDoable (List.contains, O(n)).
+ * Les swaps sans effet (même staff, deux slots vides) sont écartés dès ici.
+ */
+public class ShiftSlotSwapMoveFilter implements SelectionFilter<ScheduleSolution, Move<ScheduleSolution>> {
+
+    @Override
+    public boolean accept(ScoreDirector<ScheduleSolution> scoreDirector, Move<ScheduleSolution> move) {
+        if (!(move instanceof SwapMove<?> swapMove)) {
+            return true; // Pas un SwapMove, accepter
+        }
+        if (!(swapMove.getLeftEntity() instanceof ShiftSlot leftSlot)
+                || !(swapMove.getRightEntity() instanceof ShiftSlot rightSlot)) {
+            return true; // Pas deux ShiftSlots, accepter
+        }
+
+        return isSwapEligible(leftSlot, rightSlot);
+    }
+
+    /**
+     * Vérifie qu'un swap entre deux slots change quelque chose et que chaque staff est éligible
+     * à son nouveau slot (aussi utilisé par NearbySlotSwapMoveIteratorFactory).
+     */
+    static boolean isSwapEligible(ShiftSlot leftSlot, ShiftSlot rightSlot) {
+        Staff leftStaff = leftSlot.getStaff();
+        Staff rightStaff = rightSlot.getStaff();
+        if (leftStaff == rightStaff) {
+            return false; // Rien à échanger
+        }
+        // Après le swap : leftSlot reçoit rightStaff, rightSlot reçoit leftStaff (null = slot libéré, toujours OK)
+        return (rightStaff == null || leftSlot.isStaffEligible(rightStaff))
+            && (leftStaff == null || rightSlot.isStaffEligible(leftStaff));
+    }
+}
@@ -0,0 +1,273 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.Location;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.Shift;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Site decomposition: solves one subproblem per site in parallel, then polishes the merged
+ * schedule with a short global local search.
+ *
+ * 1. Capacity reservation: a staff member eligible on several sites for the same half-day is
+ *    reserved for one of them (site with the largest remaining demand, then preferred site),
+ *    so two partitions never assign the same person at the same time.
+ * 2. Partition: per site, its ShiftSlots (value range restricted by the reservation), its
+ *    ClosingAssignments and its shifts. Staff, locations and absences are shared read-only facts
+ *    (caches and dense keys built once by problem.initializeMaps, never rebuilt per partition:
+ *    the keys are assigned in problem order), entities are planning-cloned by each solver.
+ * 3. Solve the partitions concurrently on a fixed thread pool.
+ * 4. Restore the full value ranges (also when a partition fails), merge the assignments into
+ *    the original problem and run the polish solver (local search only) on the whole schedule,
+ *    which repairs cross-site effects (SS4 site changes, flexible staff days, workload).
+ */
+public class SitePartitionedSolver {
+
+    private static final Logger log = LoggerFactory.getLogger(SitePartitionedSolver.class);
+
+    private final SolverFactory<ScheduleSolution> partitionSolverFactory;
+    private final SolverFactory<ScheduleSolution> polishSolverFactory;
+    private final int threadCount;
+
+    public SitePartitionedSolver(SolverConfig partitionSolverConfig, SolverConfig polishSolverConfig, int threadCount) {
+        this.partitionSolverFactory = SolverFactory.create(partitionSolverConfig);
+        this.polishSolverFactory = SolverFactory.create(polishSolverConfig);
+        this.threadCount = threadCount;
+    }
+
+    public ScheduleSolution solve(ScheduleSolution problem) {
+        long startTime = System.currentTimeMillis();
+        List<Partition> partitions = partition(problem);
+        Map<StaffHalfDay, UUID> reservations = reserveCapacity(problem.getShiftSlots());
+
+        List<ScheduleSolution> solvedSubproblems;
+        try {
+            List<ScheduleSolution> subproblems = new ArrayList<>();
+            for (Partition partition : partitions) {
+                subproblems.add(partition.buildSubproblem(problem, reservations));
+            }
+            log.info("Site partitioning: {} partitions, {} reserved multi-site staff half-days, {} threads",
+                partitions.size(), reservations.size(), threadCount);
+
+            solvedSubproblems = solvePartitions(partitions, subproblems);
+        } finally {
+            // The partitions restricted the caller's slots: full value ranges again, even on failure
+            for (ShiftSlot slot : problem.getShiftSlots()) {
+                slot.initializeEligibility(problem.getStaffList());
+            }
+        }
+
+        // Merge: same Staff instances (problem facts are not cloned), copy by entity id
+        Map<UUID, Staff> staffBySlotId = new HashMap<>();
+        Map<UUID, Staff> staffByClosingId = new HashMap<>();
+        for (ScheduleSolution solved : solvedSubproblems) {
+            solved.getShiftSlots().forEach(slot -> staffBySlotId.put(slot.getId(), slot.getStaff()));
+            solved.getClosingAssignments().forEach(ca -> staffByClosingId.put(ca.getId(), ca.getStaff()));
+        }
+        problem.getShiftSlots().forEach(slot -> slot.setStaff(staffBySlotId.get(slot.getId())));
+        problem.getClosingAssignments().forEach(ca -> ca.setStaff(staffByClosingId.get(ca.getId())));
+        log.info("Partitions merged after {} ms, starting global polish", System.currentTimeMillis() - startTime);
+
+        ScheduleSolution solution = polishSolverFactory.buildSolver().solve(problem);
+        log.info("Site-partitioned solve finished in {} ms, score {}",
+            System.currentTimeMillis() - startTime, solution.getScore());
+        return solution;
+    }
+
+    private List<ScheduleSolution> solvePartitions(List<Partition> partitions, List<ScheduleSolution> subproblems) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, partitions.size()));
+        try {
+            List<Future<ScheduleSolution>> futures = new ArrayList<>();
+            for (int i = 0; i < partitions.size(); i++) {
+                Partition partition = partitions.get(i);
+                ScheduleSolution subproblem = subproblems.get(i);
+                futures.add(executor.submit(() -> {
+                    ScheduleSolution solved = partitionSolverFactory.buildSolver().solve(subproblem);
+                    log.info("  Partition {}: {} slots, {} closings, score {}", partition.siteName,
+                        partition.slots.size(), partition.closingAssignments.size(), solved.getScore());
+                    return solved;
+                }));
+            }
+            List<ScheduleSolution> solved = new ArrayList<>();
+            for (Future<ScheduleSolution> future : futures) {
+                solved.add(future.get());
+            }
+            return solved;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Site-partitioned solving interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Partition solving failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ========== Partitioning ==========
+
+    private List<Partition> partition(ScheduleSolution problem) {
+        // LinkedHashMap: partition order follows the problem order (reproducible), null site allowed
+        Map<UUID, Partition> partitionBySite = new LinkedHashMap<>();
+        for (ShiftSlot slot : problem.getShiftSlots()) {
+            Partition partition = partitionBySite.computeIfAbsent(slot.getSiteId(), Partition::new);
+            if (partition.siteName == null) {
+                partition.siteName = slot.getSiteName();
+            }
+            partition.slots.add(slot);
+            partition.shifts.add(slot.getShift());
+        }
+        for (ClosingAssignment ca : problem.getClosingAssignments()) {
+            Location location = problem.getLocationById(ca.getLocationId());
+            UUID siteId = location != null ? location.getSiteId() : null;
+            partitionBySite.computeIfAbsent(siteId, Partition::new).closingAssignments.add(ca);
+        }
+        return new ArrayList<>(partitionBySite.values());
+    }
+
+    /**
+     * Assigns each multi-site staff half-day to one site. Single-site staff only count as
+     * capacity of their site. Staff with fewer candidate sites are placed first.
+     */
+    private Map<StaffHalfDay, UUID> reserveCapacity(List<ShiftSlot> slots) {
+        // half-day -> site -> number of slots / staff -> candidate sites
+        Map<HalfDay, Map<UUID, Integer>> demandByHalfDay = new HashMap<>();
+        Map<HalfDay, Map<Staff, Set<UUID>>> candidateSitesByHalfDay = new HashMap<>();
+        Map<UUID, Integer> siteIndexById = new HashMap<>();
+        for (ShiftSlot slot : slots) {
+            if (slot.getDate() == null) {
+                continue;
+            }
+            siteIndexById.putIfAbsent(slot.getSiteId(), slot.getSiteIndex());
+            for (int periodId : periodsOf(slot)) {
+                HalfDay halfDay = new HalfDay(slot.getDate(), periodId);
+                demandByHalfDay.computeIfAbsent(halfDay, h -> new HashMap<>())
+                    .merge(slot.getSiteId(), 1, Integer::sum);
+                Map<Staff, Set<UUID>> candidateSites =
+                    candidateSitesByHalfDay.computeIfAbsent(halfDay, h -> new LinkedHashMap<>());
+                for (Staff staff : slot.getEligibleStaff()) {
+                    candidateSites.computeIfAbsent(staff, s -> new LinkedHashSet<>()).add(slot.getSiteId());
+                }
+            }
+        }
+
+        Map<StaffHalfDay, UUID> reservations = new HashMap<>();
+        for (var entry : candidateSitesByHalfDay.entrySet()) {
+            HalfDay halfDay = entry.getKey();
+            Map<UUID, Integer> demand = demandByHalfDay.get(halfDay);
+            Map<UUID, Integer> reserved = new HashMap<>();
+            List<Staff> multiSiteStaff = new ArrayList<>();
+            for (var candidate : entry.getValue().entrySet()) {
+                if (candidate.getValue().size() == 1) {
+                    reserved.merge(candidate.getValue().iterator().next(), 1, Integer::sum);
+                } else {
+                    multiSiteStaff.add(candidate.getKey());
+                }
+            }
+            multiSiteStaff.sort(Comparator
+                .comparingInt((Staff s) -> entry.getValue().get(s).size())
+                .thenComparingInt(Staff::getIndex));
+            for (Staff staff : multiSiteStaff) {
+                UUID bestSite = null;
+                int bestShortage = Integer.MIN_VALUE;
+                int bestPriority = Integer.MAX_VALUE;
+                for (UUID siteId : entry.getValue().get(staff)) {
+                    int shortage = demand.getOrDefault(siteId, 0) - reserved.getOrDefault(siteId, 0);
+                    int priority = sitePriority(staff, siteIndexById.get(siteId));
+                    if (shortage > bestShortage || (shortage == bestShortage && priority < bestPriority)) {
+                        bestSite = siteId;
+                        bestShortage = shortage;
+                        bestPriority = priority;
+                    }
+                }
+                reserved.merge(bestSite, 1, Integer::sum);
+                reservations.put(new StaffHalfDay(staff, halfDay), bestSite);
+            }
+        }
+        return reservations;
+    }
+
+    // Priority 1 = preferred site, 0 (unknown site, NO_INDEX) sorts last
+    private static int sitePriority(Staff staff, int siteIndex) {
+        int priority = staff.getSitePriority(siteIndex);
+        return priority > 0 ? priority : Integer.MAX_VALUE;
+    }
+
+    // Full-day slots (periodId=0) use both half-days
+    private static int[] periodsOf(ShiftSlot slot) {
+        return slot.getPeriodId() == 0 ? new int[] {1, 2} : new int[] {slot.getPeriodId()};
+    }
+
+    private record HalfDay(LocalDate date, int periodId) {
+    }
+
+    private record StaffHalfDay(Staff staff, HalfDay halfDay) {
+    }
+
+    /**
+     * Entities and shifts of one site.
+     */
+    private static final class Partition {
+
+        private final UUID siteId;
+        private String siteName;
+        private final List<ShiftSlot> slots = new ArrayList<>();
+        private final List<ClosingAssignment> closingAssignments = new ArrayList<>();
+        private final Set<Shift> shifts = new LinkedHashSet<>();
+
+        Partition(UUID siteId) {
+            this.siteId = siteId;
+        }
+
+        ScheduleSolution buildSubproblem(ScheduleSolution problem, Map<StaffHalfDay, UUID> reservations) {
+            ScheduleSolution subproblem = new ScheduleSolution();
+            subproblem.setStaffList(problem.getStaffList());
+            subproblem.setLocations(problem.getLocations());
+            subproblem.setAbsences(problem.getAbsences());
+            subproblem.setShifts(new ArrayList<>(shifts));
+            subproblem.setShiftSlots(new ArrayList<>(slots));
+            subproblem.setClosingAssignments(new ArrayList<>(closingAssignments));
+
+            // Staff reserved for another site on this half-day are removed from the value range
+            for (ShiftSlot slot : slots) {
+                if (slot.getDate() == null) {
+                    continue;
+                }
+                int[] periods = periodsOf(slot);
+                slot.restrictEligibility(staff -> {
+                    for (int periodId : periods) {
+                        UUID reservedSite = reservations.get(new StaffHalfDay(staff, new HalfDay(slot.getDate(), periodId)));
+                        if (reservedSite != null && !Objects.equals(reservedSite, siteId)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            return subproblem;
+        }
+    }
+}
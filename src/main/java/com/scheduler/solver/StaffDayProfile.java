@@ -0,0 +1,115 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
+
+import com.scheduler.domain.KeyIndex;
+import com.scheduler.domain.ShiftSlot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Profil d'une journée (staff, date) : résultat du collector partagé par HS4, SS3 et SS4.
+ *
+ * Les trois contraintes comparaient les slots d'un même staff sur une même date avec leur propre
+ * self-join (AM x PM pour SS3 / SS4, même demi-journée pour HS4). Elles partent maintenant d'un seul
+ * groupBy(staff, dayKey, collector()) : un move ne met à jour qu'un groupe (staff, jour) par staff
+ * touché, au lieu de trois réseaux de joins.
+ *
+ * - doubleBookings: paires de slots sur la même demi-journée (HS4)
+ * - sameLocationPairs: paires AM/PM au même lieu (SS3)
+ * - siteChangePairs: paires AM/PM sur deux sites différents (SS4)
+ *
+ * Les paires sont comptées comme les anciens joins, le score est donc identique.
+ */
+public record StaffDayProfile(int doubleBookings, int sameLocationPairs, int siteChangePairs) {
+
+    static final StaffDayProfile EMPTY = new StaffDayProfile(0, 0, 0);
+
+    // Une seule instance : les streams qui l'utilisent partagent le même nœud groupBy
+    private static final UniConstraintCollector<ShiftSlot, Accumulator, StaffDayProfile> COLLECTOR = new Collector();
+
+    static UniConstraintCollector<ShiftSlot, ?, StaffDayProfile> collector() {
+        return COLLECTOR;
+    }
+
+    /**
+     * Slots d'un staff sur une journée, par demi-journée.
+     * Quelques slots au plus par journée : des listes suffisent.
+     */
+    static final class Accumulator {
+
+        private final List<ShiftSlot> amSlots = new ArrayList<>(2);
+        private final List<ShiftSlot> pmSlots = new ArrayList<>(2);
+        private final List<ShiftSlot> otherSlots = new ArrayList<>(0); // journée entière / période inconnue
+
+        private List<ShiftSlot> slotsOf(ShiftSlot slot) {
+            return switch (slot.getPeriodId()) {
+                case 1 -> amSlots;
+                case 2 -> pmSlots;
+                default -> otherSlots;
+            };
+        }
+
+        Runnable add(ShiftSlot slot) {
+            List<ShiftSlot> slots = slotsOf(slot);
+            slots.add(slot);
+            return () -> slots.remove(slot);
+        }
+
+        StaffDayProfile toProfile() {
+            int doubleBookings = pairCount(amSlots.size()) + pairCount(pmSlots.size());
+            for (int i = 0; i < otherSlots.size(); i++) {
+                for (int j = i + 1; j < otherSlots.size(); j++) {
+                    if (otherSlots.get(i).getPeriodId() == otherSlots.get(j).getPeriodId()) {
+                        doubleBookings++;
+                    }
+                }
+            }
+            int sameLocationPairs = 0;
+            int siteChangePairs = 0;
+            for (ShiftSlot am : amSlots) {
+                int amLocation = am.getLocationIndex();
+                int amSite = am.getSiteIndex();
+                for (ShiftSlot pm : pmSlots) {
+                    if (amLocation != KeyIndex.NO_INDEX && amLocation == pm.getLocationIndex()) {
+                        sameLocationPairs++;
+                    }
+                    if (amSite != KeyIndex.NO_INDEX && pm.getSiteIndex() != KeyIndex.NO_INDEX
+                            && amSite != pm.getSiteIndex()) {
+                        siteChangePairs++;
+                    }
+                }
+            }
+            if (doubleBookings == 0 && sameLocationPairs == 0 && siteChangePairs == 0) {
+                return EMPTY;
+            }
+            return new StaffDayProfile(doubleBookings, sameLocationPairs, siteChangePairs);
+        }
+
+        private static int pairCount(int size) {
+            return size * (size - 1) / 2;
+        }
+    }
+
+    private static final class Collector implements UniConstraintCollector<ShiftSlot, Accumulator, StaffDayProfile> {
+
+        @Override
+        public Supplier<Accumulator> supplier() {
+            return Accumulator::new;
+        }
+
+        @Override
+        public BiFunction<Accumulator, ShiftSlot, Runnable> accumulator() {
+            return Accumulator::add;
+        }
+
+        @Override
+        public Function<Accumulator, StaffDayProfile> finisher() {
+            return Accumulator::toProfile;
+        }
+    }
+}
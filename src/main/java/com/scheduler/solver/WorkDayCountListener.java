@@ -7,19 +7,56 @@ import com.scheduler.domain.ShiftSlot;
 import com.scheduler.domain.Staff;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * Shadow variable listener that calculates the number of distinct days
- * a staff member works based on their ShiftSlot assignments.
+ * a staff member works in the week of the slot, based on their ShiftSlot assignments.
  *
  * This enables efficient constraint checking for flexible staff
  * who have a maximum number of work days per week.
+ *
+ * PERFORMANCE: the listener keeps an incremental index per staff and week
+ * ((staff, week) -> date -> number of assigned slots, and (staff, week) -> assigned slots).
+ * A staff change only retracts the slot from its old staff and inserts it
+ * into its new staff, then refreshes the slots of those two staff members in that week.
+ * No scan over all ShiftSlots is done during a move.
+ *
+ * One instance exists per ScoreDirector, so the index is never shared
+ * between threads.
  */
 public class WorkDayCountListener implements VariableListener<ScheduleSolution, ShiftSlot> {
 
+    // (staff, week) -> (date -> number of slots assigned on that date)
+    private final Map<StaffWeek, Map<LocalDate, Integer>> slotCountByStaffDate = new HashMap<>();
+
+    // (staff, week) -> slots currently assigned to that staff in that week
+    private final Map<StaffWeek, Set<ShiftSlot>> slotsByStaff = new HashMap<>();
+
+    // Staff weeks whose slots were retracted in a before* event and must be refreshed in the after* event
+    private final Set<StaffWeek> dirtyStaff = new LinkedHashSet<>();
+
+    @Override
+    public void resetWorkingSolution(ScoreDirector<ScheduleSolution> scoreDirector) {
+        slotCountByStaffDate.clear();
+        slotsByStaff.clear();
+        dirtyStaff.clear();
+        for (ShiftSlot slot : scoreDirector.getWorkingSolution().getShiftSlots()) {
+            insert(slot);
+        }
+        // The working solution may arrive already assigned (snapshot, merged partitions):
+        // align every shadow value with the index
+        for (ShiftSlot slot : scoreDirector.getWorkingSolution().getShiftSlots()) {
+            setWorkDayCount(scoreDirector, slot,
+                slot.getStaff() == null ? null : getWorkDayCount(slot.getStaff(), slot.getWeekStart()));
+        }
+    }
+
     @Override
     public void beforeEntityAdded(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
         // No-op
@@ -27,57 +64,133 @@ public class WorkDayCountListener implements VariableListener<ScheduleSolution,
 
     @Override
     public void afterEntityAdded(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        updateWorkDayCount(scoreDirector, slot.getStaff());
+        insert(slot);
+        refresh(scoreDirector, slot);
     }
 
     @Override
     public void beforeVariableChanged(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        // No-op
+        retract(slot);
     }
 
     @Override
     public void afterVariableChanged(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        updateWorkDayCount(scoreDirector, slot.getStaff());
+        insert(slot);
+        refresh(scoreDirector, slot);
     }
 
     @Override
     public void beforeEntityRemoved(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        // No-op
+        retract(slot);
     }
 
     @Override
     public void afterEntityRemoved(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
-        updateWorkDayCount(scoreDirector, slot.getStaff());
+        refreshDirtyStaff(scoreDirector);
+    }
+
+    @Override
+    public void close() {
+        slotCountByStaffDate.clear();
+        slotsByStaff.clear();
+        dirtyStaff.clear();
     }
 
     /**
-     * Updates the staffWorkDayCount shadow variable for all slots assigned to this staff.
+     * Number of distinct work days currently indexed for this staff in the week starting at weekStart.
      */
-    private void updateWorkDayCount(ScoreDirector<ScheduleSolution> scoreDirector, Staff staff) {
+    int getWorkDayCount(Staff staff, LocalDate weekStart) {
+        Map<LocalDate, Integer> countByDate = slotCountByStaffDate.get(new StaffWeek(staff, weekStart));
+        return countByDate == null ? 0 : countByDate.size();
+    }
+
+    // ========== Index maintenance ==========
+
+    private void insert(ShiftSlot slot) {
+        Staff staff = slot.getStaff();
         if (staff == null) {
             return;
         }
+        StaffWeek staffWeek = new StaffWeek(staff, slot.getWeekStart());
+        if (!slotsByStaff.computeIfAbsent(staffWeek, s -> new HashSet<>()).add(slot)) {
+            return; // Already indexed (e.g. afterEntityAdded after resetWorkingSolution)
+        }
+        LocalDate date = slot.getDate();
+        if (date != null) {
+            slotCountByStaffDate.computeIfAbsent(staffWeek, s -> new HashMap<>())
+                .merge(date, 1, Integer::sum);
+        }
+    }
 
-        ScheduleSolution solution = scoreDirector.getWorkingSolution();
-
-        // Count distinct days where this staff works
-        Set<LocalDate> workDays = new HashSet<>();
-        for (ShiftSlot slot : solution.getShiftSlots()) {
-            if (staff.equals(slot.getStaff()) && slot.getDate() != null) {
-                workDays.add(slot.getDate());
-            }
+    private void retract(ShiftSlot slot) {
+        Staff staff = slot.getStaff();
+        if (staff == null) {
+            return;
+        }
+        StaffWeek staffWeek = new StaffWeek(staff, slot.getWeekStart());
+        Set<ShiftSlot> slots = slotsByStaff.get(staffWeek);
+        if (slots == null || !slots.remove(slot)) {
+            return; // Not indexed
+        }
+        if (slots.isEmpty()) {
+            slotsByStaff.remove(staffWeek);
         }
-        Integer newCount = workDays.size();
-
-        // Update all slots for this staff
-        for (ShiftSlot slot : solution.getShiftSlots()) {
-            if (staff.equals(slot.getStaff())) {
-                if (!Objects.equals(newCount, slot.getStaffWorkDayCount())) {
-                    scoreDirector.beforeVariableChanged(slot, "staffWorkDayCount");
-                    slot.setStaffWorkDayCount(newCount);
-                    scoreDirector.afterVariableChanged(slot, "staffWorkDayCount");
-                }
+        LocalDate date = slot.getDate();
+        if (date != null) {
+            Map<LocalDate, Integer> countByDate = slotCountByStaffDate.get(staffWeek);
+            countByDate.computeIfPresent(date, (d, count) -> count == 1 ? null : count - 1);
+            if (countByDate.isEmpty()) {
+                slotCountByStaffDate.remove(staffWeek);
             }
         }
+        dirtyStaff.add(staffWeek);
+    }
+
+    // ========== Shadow variable updates ==========
+
+    /**
+     * Refreshes the staff that lost a slot, the new staff of this slot,
+     * and clears the count of the slot itself if it became unassigned.
+     */
+    private void refresh(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot) {
+        refreshDirtyStaff(scoreDirector);
+        if (slot.getStaff() == null) {
+            setWorkDayCount(scoreDirector, slot, null);
+        } else {
+            refreshStaff(scoreDirector, new StaffWeek(slot.getStaff(), slot.getWeekStart()));
+        }
+    }
+
+    private void refreshDirtyStaff(ScoreDirector<ScheduleSolution> scoreDirector) {
+        for (StaffWeek staffWeek : dirtyStaff) {
+            refreshStaff(scoreDirector, staffWeek);
+        }
+        dirtyStaff.clear();
+    }
+
+    /**
+     * Updates the staffWorkDayCount shadow variable for all slots assigned to this staff in this week.
+     */
+    private void refreshStaff(ScoreDirector<ScheduleSolution> scoreDirector, StaffWeek staffWeek) {
+        Set<ShiftSlot> slots = slotsByStaff.get(staffWeek);
+        if (slots == null) {
+            return;
+        }
+        Map<LocalDate, Integer> countByDate = slotCountByStaffDate.get(staffWeek);
+        Integer newCount = countByDate == null ? 0 : countByDate.size();
+        for (ShiftSlot slot : slots) {
+            setWorkDayCount(scoreDirector, slot, newCount);
+        }
+    }
+
+    private void setWorkDayCount(ScoreDirector<ScheduleSolution> scoreDirector, ShiftSlot slot, Integer newCount) {
+        if (!Objects.equals(newCount, slot.getStaffWorkDayCount())) {
+            scoreDirector.beforeVariableChanged(slot, "staffWorkDayCount");
+            slot.setStaffWorkDayCount(newCount);
+            scoreDirector.afterVariableChanged(slot, "staffWorkDayCount");
+        }
+    }
+
+    private record StaffWeek(Staff staff, LocalDate weekStart) {
     }
 }
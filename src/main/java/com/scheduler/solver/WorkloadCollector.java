@@ -0,0 +1,257 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
+
+import com.scheduler.domain.Shift;
+import com.scheduler.domain.WorkloadItem;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * S-WORKLOAD: charge de travail d'un staff = somme des charges de plusieurs sources (LoadSource).
+ *
+ * Utilisé dans un seul groupBy(WorkloadItem::getStaff, collector) : chaque source garde son état
+ * (somme, jours distincts) dans le container du staff et renvoie le delta de charge de l'item
+ * ajouté / retiré, la charge totale est donc mise à jour en O(1). Le résultat est la charge,
+ * la contrainte pénalise son carré.
+ *
+ * Ajouter une source de charge = ajouter une LoadSource au constructeur, sans nouveau
+ * groupBy ni concat.
+ */
+public final class WorkloadCollector implements UniConstraintCollector<WorkloadItem, WorkloadCollector.Load, Integer> {
+
+    private final LoadSource<?>[] sources;
+
+    public WorkloadCollector(LoadSource<?>... sources) {
+        if (sources.length == 0) {
+            throw new IllegalArgumentException("WorkloadCollector needs at least one load source");
+        }
+        this.sources = sources.clone();
+    }
+
+    /**
+     * true si au moins une source compte cet item (à filtrer avant le groupBy : les autres
+     * items ne créent pas de groupe).
+     */
+    public boolean accepts(WorkloadItem item) {
+        return sourceIndexOf(item) >= 0;
+    }
+
+    private int sourceIndexOf(WorkloadItem item) {
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].matches(item)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Supplier<Load> supplier() {
+        return () -> new Load(this);
+    }
+
+    @Override
+    public BiFunction<Load, WorkloadItem, Runnable> accumulator() {
+        return Load::add;
+    }
+
+    @Override
+    public Function<Load, Integer> finisher() {
+        return Load::charge;
+    }
+
+    /**
+     * Charge d'un staff : l'état de chaque source et leur total.
+     */
+    static final class Load {
+
+        private final WorkloadCollector collector;
+        private final SourceState[] states;
+        private int charge;
+
+        Load(WorkloadCollector collector) {
+            this.collector = collector;
+            this.states = new SourceState[collector.sources.length];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = collector.sources[i].newState();
+            }
+        }
+
+        Runnable add(WorkloadItem item) {
+            int sourceIndex = collector.sourceIndexOf(item);
+            if (sourceIndex < 0) {
+                return () -> { };
+            }
+            SourceState state = states[sourceIndex];
+            // La clé est figée à l'ajout : l'annulation retire exactement ce qui a été ajouté
+            int key = collector.sources[sourceIndex].keyOf(item);
+            charge += state.add(key);
+            return () -> charge += state.remove(key);
+        }
+
+        Integer charge() {
+            return charge;
+        }
+    }
+
+    // ========== Sources ==========
+
+    /**
+     * Une source de charge : les items qu'elle compte (type + filtre) et la clé de chaque item.
+     * L'état de la source (SourceState) transforme les clés en points.
+     */
+    public abstract static class LoadSource<T extends WorkloadItem> {
+
+        private final Class<T> itemClass;
+        private final Predicate<T> filter;
+
+        LoadSource(Class<T> itemClass, Predicate<T> filter) {
+            this.itemClass = itemClass;
+            this.filter = filter;
+        }
+
+        final boolean matches(WorkloadItem item) {
+            return itemClass.isInstance(item) && filter.test(itemClass.cast(item));
+        }
+
+        final int keyOf(WorkloadItem item) {
+            return key(itemClass.cast(item));
+        }
+
+        abstract int key(T item);
+
+        abstract SourceState newState();
+
+        /**
+         * Charge fixe par item (ex: closing 1R = 10, 2F = 13).
+         */
+        public static <T extends WorkloadItem> LoadSource<T> perItem(Class<T> itemClass, Predicate<T> filter,
+                ToIntFunction<T> charge) {
+            return new LoadSource<>(itemClass, filter) {
+                @Override
+                int key(T item) {
+                    return charge.applyAsInt(item);
+                }
+
+                @Override
+                SourceState newState() {
+                    return new SourceState() {
+                        @Override
+                        public int add(int itemCharge) {
+                            return itemCharge;
+                        }
+
+                        @Override
+                        public int remove(int itemCharge) {
+                            return -itemCharge;
+                        }
+                    };
+                }
+            };
+        }
+
+        /**
+         * Charge par jour distinct au-delà de freeDays (ex: Porrentruy, 10 points par jour après le 1er).
+         * dayIndex = Shift.dayIndexOf(date), Shift.NO_DAY compte comme un jour.
+         */
+        public static <T extends WorkloadItem> LoadSource<T> perDayBeyond(Class<T> itemClass, Predicate<T> filter,
+                ToIntFunction<T> dayIndex, int freeDays, int chargePerDay) {
+            return new LoadSource<>(itemClass, filter) {
+                @Override
+                int key(T item) {
+                    return dayIndex.applyAsInt(item);
+                }
+
+                @Override
+                SourceState newState() {
+                    return new DayCounts(freeDays, chargePerDay);
+                }
+            };
+        }
+    }
+
+    /**
+     * État d'une source pour un staff. add / remove renvoient le delta de charge.
+     */
+    interface SourceState {
+
+        int add(int key);
+
+        int remove(int key);
+    }
+
+    /**
+     * Slots par jour (index = dayIndex - firstDay) et nombre de jours distincts.
+     * Le tableau couvre l'intervalle des jours vus et ne grandit que pour un jour hors de cet intervalle.
+     */
+    static final class DayCounts implements SourceState {
+
+        private final int freeDays;
+        private final int chargePerDay;
+        private int[] slotCount = new int[0];
+        private int firstDay;
+        private int undatedCount;
+        private int distinctDays;
+
+        DayCounts(int freeDays, int chargePerDay) {
+            this.freeDays = freeDays;
+            this.chargePerDay = chargePerDay;
+        }
+
+        private int charge() {
+            return distinctDays > freeDays ? (distinctDays - freeDays) * chargePerDay : 0;
+        }
+
+        @Override
+        public int add(int day) {
+            int before = charge();
+            if (day == Shift.NO_DAY) {
+                if (undatedCount++ == 0) {
+                    distinctDays++;
+                }
+            } else {
+                ensureCovers(day);
+                if (slotCount[day - firstDay]++ == 0) {
+                    distinctDays++;
+                }
+            }
+            return charge() - before;
+        }
+
+        @Override
+        public int remove(int day) {
+            int before = charge();
+            if (day == Shift.NO_DAY) {
+                if (--undatedCount == 0) {
+                    distinctDays--;
+                }
+            } else if (--slotCount[day - firstDay] == 0) {
+                distinctDays--;
+            }
+            return charge() - before;
+        }
+
+        private void ensureCovers(int day) {
+            if (slotCount.length == 0) {
+                slotCount = new int[8];
+                firstDay = day;
+                return;
+            }
+            int end = firstDay + slotCount.length;
+            if (day >= firstDay && day < end) {
+                return;
+            }
+            int newFirstDay = Math.min(firstDay, day);
+            int newEnd = Math.max(end, day + 1);
+            int[] grown = new int[Math.max(slotCount.length * 2, newEnd - newFirstDay)];
+            System.arraycopy(slotCount, 0, grown, firstDay - newFirstDay, slotCount.length);
+            slotCount = grown;
+            firstDay = newFirstDay;
+        }
+    }
+}
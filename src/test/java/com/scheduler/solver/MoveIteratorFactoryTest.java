@@ -0,0 +1,191 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.impl.heuristic.move.Move;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Original-order iterators of the custom move iterator factories.
+ *
+ * Every move of one pass must be doable and keep the promise of its factory once done,
+ * and doing then undoing it must restore the score.
+ */
+class MoveIteratorFactoryTest {
+
+    @Test
+    void fullDayOriginalMoves() {
+        assertOriginalMoves(new FullDayMoveIteratorFactory(), 6L, MoveIteratorFactoryTest::assertFullDayMoved);
+    }
+
+    @Test
+    void closingOriginalMoves() {
+        assertOriginalMoves(new ClosingMoveIteratorFactory(), 7L, MoveIteratorFactoryTest::assertClosingWorked);
+    }
+
+    @Test
+    void nearbySlotSwapOriginalMoves() {
+        assertOriginalMoves(new NearbySlotSwapMoveIteratorFactory(), 8L, MoveIteratorFactoryTest::assertSwapped);
+    }
+
+    private static void assertOriginalMoves(MoveIteratorFactory<ScheduleSolution, Move<ScheduleSolution>> factory,
+            long seed, MovePromise promise) {
+        InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector = TestProblems.buildScoreDirector(
+            TestProblems.generateInitialized(12, 2, seed), App.ScoreCalculation.CONSTRAINT_STREAMS);
+        ScheduleSolution solution = scoreDirector.getWorkingSolution();
+        HardMediumSoftScore score = scoreDirector.calculateScore();
+        factory.phaseStarted(scoreDirector);
+        int moveCount = 0;
+        for (Iterator<Move<ScheduleSolution>> it = factory.createOriginalMoveIterator(scoreDirector); it.hasNext(); ) {
+            Move<ScheduleSolution> move = it.next();
+            assertTrue(move.isMoveDoable(scoreDirector), () -> "not doable: " + move);
+            Map<Object, Staff> staffBefore = new IdentityHashMap<>();
+            move.getPlanningEntities().forEach(entity -> staffBefore.put(entity, staffOf(entity)));
+            Set<StaffDayPeriod> doubleBookingsBefore = doubleBookings(solution);
+
+            Move<ScheduleSolution> undoMove = move.doMove(scoreDirector);
+            promise.check(move, staffBefore, doubleBookingsBefore, solution);
+            scoreDirector.calculateScore();
+            undoMove.doMove(scoreDirector);
+            assertEquals(score, scoreDirector.calculateScore(), () -> "after undo of " + move);
+            moveCount++;
+        }
+        factory.phaseEnded(scoreDirector);
+        scoreDirector.close();
+        assertTrue(moveCount > 0, "no move");
+    }
+
+    /**
+     * What a factory promises about its moves, checked right after doMove.
+     */
+    @FunctionalInterface
+    private interface MovePromise {
+
+        void check(Move<ScheduleSolution> move, Map<Object, Staff> staffBefore,
+            Set<StaffDayPeriod> doubleBookingsBefore, ScheduleSolution solution);
+    }
+
+    // ========== Promises ==========
+
+    /**
+     * Full day: every slot of the move changed staff, and each new staff holds both the AM and
+     * the PM slot of the move on that date. No staff is booked twice on a half-day.
+     */
+    private static void assertFullDayMoved(Move<ScheduleSolution> move, Map<Object, Staff> staffBefore,
+            Set<StaffDayPeriod> doubleBookingsBefore, ScheduleSolution solution) {
+        Set<StaffDayPeriod> halfDays = new HashSet<>();
+        for (Object entity : move.getPlanningEntities()) {
+            ShiftSlot slot = (ShiftSlot) entity;
+            assertNotNull(slot.getStaff(), () -> "unassigned by " + move);
+            assertNotEquals(staffBefore.get(slot), slot.getStaff(), () -> "unchanged by " + move);
+            halfDays.add(new StaffDayPeriod(slot.getStaff(), slot.getDayIndex(), slot.getPeriodId()));
+        }
+        for (StaffDayPeriod halfDay : halfDays) {
+            int otherPeriod = halfDay.periodId() == 1 ? 2 : 1;
+            assertTrue(halfDays.contains(new StaffDayPeriod(halfDay.staff(), halfDay.dayIndex(), otherPeriod)),
+                () -> "not a full day after " + move);
+        }
+        assertNoNewDoubleBooking(move, doubleBookingsBefore, solution);
+    }
+
+    /**
+     * Closing: the closing has a new staff, who works the AM and the PM at the closing location
+     * on the closing date. No staff is booked twice on a half-day.
+     */
+    private static void assertClosingWorked(Move<ScheduleSolution> move, Map<Object, Staff> staffBefore,
+            Set<StaffDayPeriod> doubleBookingsBefore, ScheduleSolution solution) {
+        ClosingAssignment ca = null;
+        for (Object entity : move.getPlanningEntities()) {
+            if (entity instanceof ClosingAssignment closing) {
+                ca = closing;
+            }
+        }
+        assertNotNull(ca, () -> "no closing in " + move);
+        Staff staff = ca.getStaff();
+        assertNotNull(staff, () -> "closing unassigned by " + move);
+        assertNotEquals(staffBefore.get(ca), staff, () -> "closing unchanged by " + move);
+        boolean am = false;
+        boolean pm = false;
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            if (slot.getStaff() == staff && slot.getLocationIndex() == ca.getLocationIndex()
+                    && slot.getDayIndex() == ca.getDayIndex()) {
+                am |= slot.getPeriodId() == 1;
+                pm |= slot.getPeriodId() == 2;
+            }
+        }
+        assertTrue(am && pm, () -> "closing staff not at the location AM and PM after " + move);
+        assertNoNewDoubleBooking(move, doubleBookingsBefore, solution);
+    }
+
+    /**
+     * Nearby swap: the two slots exchanged their staff, each eligible to its new slot.
+     */
+    private static void assertSwapped(Move<ScheduleSolution> move, Map<Object, Staff> staffBefore,
+            Set<StaffDayPeriod> doubleBookingsBefore, ScheduleSolution solution) {
+        assertEquals(2, move.getPlanningEntities().size(), () -> "not a pair: " + move);
+        Iterator<?> entities = move.getPlanningEntities().iterator();
+        ShiftSlot left = (ShiftSlot) entities.next();
+        ShiftSlot right = (ShiftSlot) entities.next();
+        assertSame(staffBefore.get(right), left.getStaff(), () -> "left not swapped by " + move);
+        assertSame(staffBefore.get(left), right.getStaff(), () -> "right not swapped by " + move);
+        for (ShiftSlot slot : new ShiftSlot[] {left, right}) {
+            assertTrue(slot.getStaff() == null || slot.isStaffEligible(slot.getStaff()),
+                () -> "ineligible staff on " + slot + " after " + move);
+        }
+    }
+
+    /**
+     * Double bookings are counted like HS4: two slots of a staff with the same date and periodId.
+     */
+    private static void assertNoNewDoubleBooking(Move<ScheduleSolution> move, Set<StaffDayPeriod> doubleBookingsBefore,
+            ScheduleSolution solution) {
+        for (StaffDayPeriod doubleBooking : doubleBookings(solution)) {
+            assertTrue(doubleBookingsBefore.contains(doubleBooking),
+                () -> "double booking " + doubleBooking + " created by " + move);
+        }
+    }
+
+    private static Set<StaffDayPeriod> doubleBookings(ScheduleSolution solution) {
+        Map<StaffDayPeriod, Integer> slotCounts = new HashMap<>();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            if (slot.getStaff() != null) {
+                slotCounts.merge(new StaffDayPeriod(slot.getStaff(), slot.getDayIndex(), slot.getPeriodId()), 1, Integer::sum);
+            }
+        }
+        Set<StaffDayPeriod> doubleBookings = new HashSet<>();
+        slotCounts.forEach((key, count) -> {
+            if (count > 1) {
+                doubleBookings.add(key);
+            }
+        });
+        return doubleBookings;
+    }
+
+    private static Staff staffOf(Object entity) {
+        return entity instanceof ShiftSlot slot ? slot.getStaff() : ((ClosingAssignment) entity).getStaff();
+    }
+
+    private record StaffDayPeriod(Staff staff, int dayIndex, int periodId) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parity between ScheduleIncrementalScoreCalculator and ScheduleConstraintProvider.
+ *
+ * - randomMovesGiveSameScore: both score directors get the same random changes (slots and
+ *   closings), their scores are compared after each change.
+ * - solveWithAssertionScoreDirector: incremental solve in FULL_ASSERT with the constraint
+ *   streams as assertion score director, so after each move of the production move selectors
+ *   (swaps, pillars, composite moves); any difference throws "Score corruption".
+ */
+class ScoreParityTest {
+
+    private static final int RANDOM_MOVES = 2000;
+
+    @Test
+    void randomMovesGiveSameScore() {
+        // Same seed = same initialized problem: both solutions are identical, entity by entity
+        InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> streams = TestProblems.buildScoreDirector(
+            TestProblems.generateInitialized(12, 2, 4L), App.ScoreCalculation.CONSTRAINT_STREAMS);
+        InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> incremental = TestProblems.buildScoreDirector(
+            TestProblems.generateInitialized(12, 2, 4L), App.ScoreCalculation.INCREMENTAL);
+        assertEquals(streams.calculateScore(), incremental.calculateScore(), "initial score");
+
+        Random random = new Random(4L);
+        int slotCount = streams.getWorkingSolution().getShiftSlots().size();
+        int closingCount = streams.getWorkingSolution().getClosingAssignments().size();
+        int staffCount = streams.getWorkingSolution().getStaffList().size();
+        for (int i = 0; i < RANDOM_MOVES; i++) {
+            // 3 slot changes for 1 closing change; null = slot unassigned
+            boolean closing = random.nextInt(4) == 0;
+            int entityIndex = random.nextInt(closing ? closingCount : slotCount);
+            int staffIndex = closing || random.nextInt(10) > 0 ? random.nextInt(staffCount) : -1;
+            String move = (closing ? "closing " : "slot ") + entityIndex + " -> staff " + staffIndex;
+            applyChange(streams, closing, entityIndex, staffIndex);
+            applyChange(incremental, closing, entityIndex, staffIndex);
+            assertEquals(streams.calculateScore(), incremental.calculateScore(), "after move " + i + " (" + move + ")");
+        }
+        streams.close();
+        incremental.close();
+    }
+
+    @Test
+    void solveWithAssertionScoreDirector() {
+        SolverConfig solverConfig = TestProblems.solverConfig(EnvironmentMode.FULL_ASSERT,
+            App.ScoreCalculation.INCREMENTAL, 5L, 500);
+        solverConfig.getScoreDirectorFactoryConfig().setAssertionScoreDirectorFactory(
+            App.buildScoreDirectorFactoryConfig(App.ScoreCalculation.CONSTRAINT_STREAMS));
+        ScheduleSolution solution = SolverFactory.<ScheduleSolution>create(solverConfig).buildSolver()
+            .solve(TestProblems.generate(12, 2, 5L));
+        assertTrue(solution.getScore().isSolutionInitialized());
+    }
+
+    /**
+     * Sets the staff (index in staffList, -1 = null) of a slot or a closing through the score director.
+     * Slots draw any staff: parity must also hold outside the value range.
+     */
+    private static void applyChange(InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector,
+            boolean closing, int entityIndex, int staffIndex) {
+        ScheduleSolution solution = scoreDirector.getWorkingSolution();
+        Staff staff = staffIndex < 0 ? null : solution.getStaffList().get(staffIndex);
+        if (closing) {
+            ClosingAssignment ca = solution.getClosingAssignments().get(entityIndex);
+            scoreDirector.beforeVariableChanged(ca, "staff");
+            ca.setStaff(staff);
+            scoreDirector.afterVariableChanged(ca, "staff");
+        } else {
+            List<ShiftSlot> slots = solution.getShiftSlots();
+            ShiftSlot slot = slots.get(entityIndex);
+            scoreDirector.beforeVariableChanged(slot, "staff");
+            slot.setStaff(staff);
+            scoreDirector.afterVariableChanged(slot, "staff");
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+}
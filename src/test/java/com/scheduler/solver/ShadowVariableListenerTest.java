@@ -0,0 +1,189 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.domain.ClosingAssignment;
+import com.scheduler.domain.ScheduleSolution;
+import com.scheduler.domain.ShiftSlot;
+import com.scheduler.domain.Staff;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shadow variable listeners (WorkDayCountListener, FullDayWorkListener, ClosingFullDayListener)
+ * against a from-scratch recount.
+ *
+ * Their incremental indexes are only correct if every before / after event pair is handled:
+ * after each random change, every shadow value must equal the value recounted from the
+ * planning variables. The FULL_ASSERT solve also lets Timefold check for stale shadow
+ * variables after every move of the production move selectors, and the rolling horizon solve
+ * checks the shadows of the solution it hands back.
+ */
+class ShadowVariableListenerTest {
+
+    private static final int RANDOM_MOVES = 2000;
+
+    @Test
+    void solveUnderFullAssert() {
+        // Full-day moves included: they are off by default but must keep the shadow variables right
+        ScheduleSolution solution = SolverFactory.<ScheduleSolution>create(App.withFullDayMoves(
+                TestProblems.solverConfig(EnvironmentMode.FULL_ASSERT, App.ScoreCalculation.CONSTRAINT_STREAMS, 0L, 300)))
+            .buildSolver()
+            .solve(TestProblems.generate(12, 2, 1L));
+        assertTrue(solution.getScore().isSolutionInitialized());
+    }
+
+    @Test
+    void workDayCountMatchesRecount() {
+        applyRandomMoves(2L, ShadowVariableListenerTest::assertWorkDayCounts);
+    }
+
+    @Test
+    void fullDayMatchesRecount() {
+        applyRandomMoves(3L, ShadowVariableListenerTest::assertFullDays);
+    }
+
+    @Test
+    void closingWorkedHalfDaysMatchRecount() {
+        applyRandomMoves(4L, ShadowVariableListenerTest::assertClosingHalfDays);
+    }
+
+    @Test
+    void rollingHorizonShadowsMatchRecount() {
+        // The week solvers work on planning clones: the returned problem must not keep stale shadows
+        ScheduleSolution solution = new RollingHorizonSolver(
+                TestProblems.solverConfig(EnvironmentMode.REPRODUCIBLE, App.ScoreCalculation.CONSTRAINT_STREAMS, 5L, 200))
+            .solve(TestProblems.generate(12, 2, 5L));
+        assertTrue(solution.getScore().isSolutionInitialized());
+        assertWorkDayCounts(solution);
+        assertFullDays(solution);
+        assertClosingHalfDays(solution);
+    }
+
+    /**
+     * Initialized problem, then RANDOM_MOVES random staff changes (null included) through the
+     * score director: 3 slot changes for 1 closing change, so both sources of
+     * ClosingFullDayListener move. The check runs once after loading (resetWorkingSolution)
+     * and after each change.
+     */
+    private static void applyRandomMoves(long seed, Consumer<ScheduleSolution> check) {
+        ScheduleSolution solution = TestProblems.generateInitialized(12, 2, seed);
+        InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> scoreDirector =
+            TestProblems.buildScoreDirector(solution, App.ScoreCalculation.CONSTRAINT_STREAMS);
+        ScheduleSolution workingSolution = scoreDirector.getWorkingSolution();
+        check.accept(workingSolution);
+
+        Random random = new Random(seed);
+        List<ShiftSlot> slots = workingSolution.getShiftSlots();
+        List<ClosingAssignment> closings = workingSolution.getClosingAssignments();
+        List<Staff> staffList = workingSolution.getStaffList();
+        for (int i = 0; i < RANDOM_MOVES; i++) {
+            if (random.nextInt(4) == 0) {
+                ClosingAssignment ca = closings.get(random.nextInt(closings.size()));
+                Staff staff = random.nextInt(10) == 0 ? null : staffList.get(random.nextInt(staffList.size()));
+                scoreDirector.beforeVariableChanged(ca, "staff");
+                ca.setStaff(staff);
+                scoreDirector.afterVariableChanged(ca, "staff");
+            } else {
+                ShiftSlot slot = slots.get(random.nextInt(slots.size()));
+                List<Staff> candidates = slot.getEligibleStaff();
+                Staff staff = random.nextInt(10) == 0 || candidates.isEmpty()
+                    ? null : candidates.get(random.nextInt(candidates.size()));
+                scoreDirector.beforeVariableChanged(slot, "staff");
+                slot.setStaff(staff);
+                scoreDirector.afterVariableChanged(slot, "staff");
+            }
+            scoreDirector.triggerVariableListeners();
+            check.accept(workingSolution);
+        }
+        scoreDirector.close();
+    }
+
+    // ========== Recounts ==========
+
+    /**
+     * staffWorkDayCount = distinct dates of the slots of the same staff in the same week, null if unassigned.
+     */
+    private static void assertWorkDayCounts(ScheduleSolution solution) {
+        Map<StaffWeek, Set<LocalDate>> datesByStaffWeek = new HashMap<>();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            if (slot.getStaff() != null) {
+                datesByStaffWeek.computeIfAbsent(new StaffWeek(slot.getStaff(), slot.getWeekStart()),
+                    k -> new HashSet<>()).add(slot.getDate());
+            }
+        }
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            Integer expected = slot.getStaff() == null ? null
+                : datesByStaffWeek.get(new StaffWeek(slot.getStaff(), slot.getWeekStart())).size();
+            assertEquals(expected, slot.getStaffWorkDayCount(), () -> "staffWorkDayCount of " + slot);
+        }
+    }
+
+    /**
+     * isWorkingFullDay = the staff holds an AM and a PM slot on that date, null if unassigned.
+     * Full-day slots (periodId=0) get the flag of their date but don't count as AM or PM.
+     */
+    private static void assertFullDays(ScheduleSolution solution) {
+        Map<StaffDate, Set<Integer>> periodsByStaffDate = new HashMap<>();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            if (slot.getStaff() != null) {
+                periodsByStaffDate.computeIfAbsent(new StaffDate(slot.getStaff(), slot.getDate()),
+                    k -> new HashSet<>()).add(slot.getPeriodId());
+            }
+        }
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            Boolean expected = null;
+            if (slot.getStaff() != null) {
+                Set<Integer> periods = periodsByStaffDate.get(new StaffDate(slot.getStaff(), slot.getDate()));
+                expected = periods.contains(1) && periods.contains(2);
+            }
+            assertEquals(expected, slot.getIsWorkingFullDay(), () -> "isWorkingFullDay of " + slot);
+        }
+    }
+
+    /**
+     * workedHalfDays = AM / PM bits of the slots the closing staff holds at the closing location
+     * on the closing date, null if unassigned. Full-day slots (periodId=0) don't count.
+     */
+    private static void assertClosingHalfDays(ScheduleSolution solution) {
+        Map<StaffLocationDay, Integer> halfDaysByStaffLocationDay = new HashMap<>();
+        for (ShiftSlot slot : solution.getShiftSlots()) {
+            if (slot.getStaff() != null && (slot.getPeriodId() == 1 || slot.getPeriodId() == 2)) {
+                int bit = slot.getPeriodId() == 1 ? ClosingAssignment.WORKED_AM : ClosingAssignment.WORKED_PM;
+                halfDaysByStaffLocationDay.merge(
+                    new StaffLocationDay(slot.getStaff(), slot.getLocationIndex(), slot.getDayIndex()),
+                    bit, (a, b) -> a | b);
+            }
+        }
+        for (ClosingAssignment ca : solution.getClosingAssignments()) {
+            Integer expected = ca.getStaff() == null ? null : halfDaysByStaffLocationDay.getOrDefault(
+                new StaffLocationDay(ca.getStaff(), ca.getLocationIndex(), ca.getDayIndex()), 0);
+            assertEquals(expected, ca.getWorkedHalfDays(), () -> "workedHalfDays of " + ca);
+        }
+    }
+
+    private record StaffWeek(Staff staff, LocalDate weekStart) {
+    }
+
+    private record StaffDate(Staff staff, LocalDate date) {
+    }
+
+    private record StaffLocationDay(Staff staff, int locationIndex, int dayIndex) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.scheduler.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.EnvironmentMode;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+
+import com.scheduler.App;
+import com.scheduler.benchmark.ProblemGenerator;
+import com.scheduler.domain.ScheduleSolution;
+
+/**
+ * Small deterministic problems for the solver tests (ProblemGenerator, Shape.TEST).
+ *
+ * 3 sites, 6 locations (1 surgical, 2 with closing), 3 skills, weekdays only, flexible staff,
+ * a few absences and one admin full-day shift (periodId=0) per week.
+ * The same seed always produces the same problem.
+ */
+final class TestProblems {
+
+    private TestProblems() {
+    }
+
+    static ScheduleSolution generate(int staffCount, int weeks, long seed) {
+        return ProblemGenerator.generate(ProblemGenerator.Shape.TEST, staffCount, weeks, seed);
+    }
+
+    /**
+     * Production solver config with a fixed seed and a local search limited to a step count
+     * instead of a time limit, so a test run is reproducible.
+     */
+    static SolverConfig solverConfig(EnvironmentMode environmentMode, App.ScoreCalculation scoreCalculation,
+            long seed, int localSearchSteps) {
+        SolverConfig solverConfig = App.buildSolverConfig(environmentMode, SolverConfig.MOVE_THREAD_COUNT_NONE,
+                scoreCalculation)
+            .withRandomSeed(seed)
+            .withTerminationConfig(null);
+        // StepCountTermination is phase-level: set on the local search phase only
+        for (PhaseConfig<?> phaseConfig : solverConfig.getPhaseConfigList()) {
+            if (phaseConfig instanceof LocalSearchPhaseConfig) {
+                phaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(localSearchSteps));
+            }
+        }
+        return solverConfig;
+    }
+
+    /**
+     * Problem initialized by the production construction heuristics (no local search).
+     */
+    static ScheduleSolution generateInitialized(int staffCount, int weeks, long seed) {
+        return ProblemGenerator.generateInitialized(ProblemGenerator.Shape.TEST, staffCount, weeks, seed);
+    }
+
+    /**
+     * Score director with the production configuration, on the given working solution.
+     */
+    static InnerScoreDirector<ScheduleSolution, HardMediumSoftScore> buildScoreDirector(
+            ScheduleSolution solution, App.ScoreCalculation scoreCalculation) {
+        return ProblemGenerator.buildScoreDirector(solution, scoreCalculation);
+    }
+}